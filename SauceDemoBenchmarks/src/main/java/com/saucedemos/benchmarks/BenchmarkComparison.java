@@ -0,0 +1,73 @@
+package com.saucedemos.benchmarks;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Prints the score change per benchmark between two JMH JSON result files, e.g.
+// java -cp target/benchmarks.jar com.saucedemos.benchmarks.BenchmarkComparison target/jmh/abc123.json target/jmh/def456.json
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, Map<String, Object>> baseline = load(args[0]);
+        Map<String, Map<String, Object>> candidate = load(args[1]);
+
+        System.out.println(String.format("%-70s %12s %12s %9s", "benchmark", "baseline", "candidate", "change"));
+        for (Map.Entry<String, Map<String, Object>> entry : candidate.entrySet()) {
+            Map<String, Object> after = entry.getValue();
+            Map<String, Object> before = baseline.get(entry.getKey());
+            double afterScore = score(after);
+            String unit = (String) after.get("scoreUnit");
+            if (before == null) {
+                System.out.println(String.format("%-70s %12s %12.3f %9s  %s", entry.getKey(), "-", afterScore, "new", unit));
+                continue;
+            }
+            double beforeScore = score(before);
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) / beforeScore * 100;
+            System.out.println(String.format("%-70s %12.3f %12.3f %+8.1f%%  %s",
+                    entry.getKey(), beforeScore, afterScore, change, unit));
+        }
+        for (String removed : baseline.keySet()) {
+            if (!candidate.containsKey(removed)) {
+                System.out.println(String.format("%-70s %12.3f %12s %9s", removed, score(baseline.get(removed)), "-", "removed"));
+            }
+        }
+    }
+
+    // Primary metric per benchmark, keyed by method name plus its @Param values
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> load(String file) throws IOException {
+        String content = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        List<Map<String, Object>> runs = new Json().toType(content, Json.LIST_OF_MAPS_TYPE);
+
+        Map<String, Map<String, Object>> metrics = new LinkedHashMap<>();
+        for (Map<String, Object> run : runs) {
+            String benchmark = (String) run.get("benchmark");
+            String key = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            Map<String, Object> params = (Map<String, Object>) run.get("params");
+            if (params != null && !params.isEmpty()) {
+                key += new TreeMap<>(params);
+            }
+            metrics.put(key, (Map<String, Object>) run.get("primaryMetric"));
+        }
+        return metrics;
+    }
+
+    private static double score(Map<String, Object> metric) {
+        return ((Number) metric.get("score")).doubleValue();
+    }
+}
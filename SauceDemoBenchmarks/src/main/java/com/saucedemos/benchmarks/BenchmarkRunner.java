@@ -0,0 +1,74 @@
+package com.saucedemos.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Runs the benchmarks (all of them, or those matching the regexes given as arguments) and writes
+// JMH's JSON results to target/jmh/<commit>.json so runs on different commits can be compared
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path resultFile = Paths.get(System.getProperty("bench.resultDir", "target/jmh"), commitId() + ".json");
+        Files.createDirectories(resultFile.getParent());
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .jvmArgsAppend(forwardedProperties());
+        if (args.length == 0) {
+            options.include(BrowserSession.class.getPackage().getName() + ".*Benchmark");
+        }
+        for (String include : args) {
+            options.include(include);
+        }
+
+        new Runner(options.build()).run();
+        System.out.println("Benchmark results written to " + resultFile.toAbsolutePath());
+    }
+
+    // -Dbench.commit wins, then the current git revision
+    private static String commitId() {
+        String commit = System.getProperty("bench.commit");
+        if (commit != null && !commit.isEmpty()) {
+            return commit;
+        }
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                if (git.waitFor() == 0 && line != null && !line.isEmpty()) {
+                    return line.trim();
+                }
+            }
+        } catch (IOException e) {
+            // No git on the path
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+
+    // Forks are fresh JVMs, so pass on the settings the benchmark states and driver resolution read
+    private static String[] forwardedProperties() {
+        return System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("bench.") || name.startsWith("standin.")
+                        || name.startsWith("driver."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+    }
+}
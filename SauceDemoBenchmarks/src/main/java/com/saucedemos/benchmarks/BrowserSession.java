@@ -0,0 +1,84 @@
+package com.saucedemos.benchmarks;
+
+import com.saucedemos.driver.DriverFactory;
+import com.saucedemos.pages.CartPage;
+import com.saucedemos.pages.LoginPage;
+import com.saucedemos.pages.ProductsPage;
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.session.AuthenticatedSession;
+import com.saucedemos.session.CartState;
+import com.saucedemos.standin.StandInServer;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+// One browser per benchmark thread against the embedded stand-in, started once per trial.
+// The driver is not wrapped in the command-timing decorator and the page-load probes are off, so neither's
+// overhead ends up in the scores.
+@State(Scope.Thread)
+public class BrowserSession {
+    static final String USERNAME = "standard_user";
+    static final String PASSWORD = "secret_sauce";
+
+    private WebDriver driver;
+    private String baseUrl;
+
+    @Setup
+    public void start() {
+        // Each probed navigation adds scripts and CDP Performance.getMetrics round trips
+        PageLoads.setEnabled(false);
+        baseUrl = StandInServer.shared().getBaseUrl();
+        driver = DriverFactory.create(System.getProperty("bench.browser", "chrome"),
+                Boolean.parseBoolean(System.getProperty("bench.headless", "true")));
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        driver.get(baseUrl);
+    }
+
+    @TearDown
+    public void stop() {
+        if (driver != null) {
+            driver.quit();
+        }
+        StandInServer.stopShared();
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Logged out, empty cart, on the login form
+    public LoginPage openLoginPage() {
+        clearState();
+        driver.get(baseUrl);
+        return new LoginPage(driver);
+    }
+
+    // Logged in through the cached session, empty cart, on the inventory page
+    public ProductsPage openInventory() {
+        clearState();
+        driver.get(baseUrl);
+        ProductsPage productsPage = AuthenticatedSession.loginAs(driver, baseUrl, USERNAME, PASSWORD, false);
+        productsPage.waitForPageToLoad();
+        return productsPage;
+    }
+
+    public CartPage openCart(CartState cart) {
+        openInventory();
+        return cart.open(driver, baseUrl);
+    }
+
+    private void clearState() {
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+    }
+}
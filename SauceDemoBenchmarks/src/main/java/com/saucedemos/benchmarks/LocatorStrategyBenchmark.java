@@ -0,0 +1,80 @@
+package com.saucedemos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of resolving the same element by id, class name and CSS selector, on the login form (single element)
+// and on the inventory list (six matches)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class LocatorStrategyBenchmark {
+
+    @State(Scope.Thread)
+    public static class LoginForm {
+        @Param({"id", "className", "css"})
+        String strategy;
+
+        By loginButton;
+
+        @Setup
+        public void open(BrowserSession session) {
+            session.openLoginPage();
+            switch (strategy) {
+                case "id":
+                    loginButton = By.id("login-button");
+                    break;
+                case "className":
+                    loginButton = By.className("submit-button");
+                    break;
+                case "css":
+                    loginButton = By.cssSelector("[data-test='login-button']");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown locator strategy: " + strategy);
+            }
+        }
+    }
+
+    // There is no id shared by the items, so the list compares class name against CSS only
+    @State(Scope.Thread)
+    public static class InventoryList {
+        @Param({"className", "css"})
+        String strategy;
+
+        By items;
+
+        @Setup
+        public void open(BrowserSession session) {
+            session.openInventory();
+            items = strategy.equals("css") ? By.cssSelector(".inventory_list > .inventory_item")
+                    : By.className("inventory_item");
+        }
+    }
+
+    @Benchmark
+    public WebElement findLoginButton(BrowserSession session, LoginForm form) {
+        return session.getDriver().findElement(form.loginButton);
+    }
+
+    @Benchmark
+    public List<WebElement> findInventoryItems(BrowserSession session, InventoryList list) {
+        return session.getDriver().findElements(list.items);
+    }
+}
@@ -0,0 +1,103 @@
+package com.saucedemos.benchmarks;
+
+import com.saucedemos.pages.CartPage;
+import com.saucedemos.pages.LoginPage;
+import com.saucedemos.pages.ProductsPage;
+import com.saucedemos.session.CartState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Core page-object operations against the stand-in. Each operation that changes page state gets its
+// starting page rebuilt before every invocation; that setup is excluded from the score.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PageObjectBenchmark {
+    private static final String PRODUCT = "Sauce Labs Backpack";
+
+    @State(Scope.Thread)
+    public static class OnLoginPage {
+        LoginPage loginPage;
+
+        @Setup(Level.Invocation)
+        public void open(BrowserSession session) {
+            loginPage = session.openLoginPage();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OnInventory {
+        ProductsPage productsPage;
+
+        @Setup(Level.Invocation)
+        public void open(BrowserSession session) {
+            productsPage = session.openInventory();
+        }
+    }
+
+    // Read-only operations can share one page for the whole trial
+    @State(Scope.Thread)
+    public static class OnInventoryReadOnly {
+        ProductsPage productsPage;
+
+        @Setup
+        public void open(BrowserSession session) {
+            productsPage = session.openInventory();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OnCartReadOnly {
+        CartPage cartPage;
+
+        @Setup
+        public void open(BrowserSession session) {
+            cartPage = session.openCart(CartState.with(CartState.allProducts()));
+        }
+    }
+
+    @Benchmark
+    public boolean login(OnLoginPage state) {
+        return state.loginPage.login(BrowserSession.USERNAME, BrowserSession.PASSWORD).isProductsPageDisplayed();
+    }
+
+    @Benchmark
+    public ProductsPage addProductToCart(OnInventory state) {
+        state.productsPage.addProductToCart(PRODUCT);
+        return state.productsPage;
+    }
+
+    @Benchmark
+    public int getProductCount(OnInventoryReadOnly state) {
+        return state.productsPage.getProductCount();
+    }
+
+    @Benchmark
+    public CartPage goToCart(OnInventory state) {
+        return state.productsPage.goToCart();
+    }
+
+    @Benchmark
+    public int getCartItemsCount(OnCartReadOnly state) {
+        return state.cartPage.getCartItemsCount();
+    }
+
+    @Benchmark
+    public ProductsPage logout(OnInventory state) {
+        state.productsPage.logout();
+        return state.productsPage;
+    }
+}
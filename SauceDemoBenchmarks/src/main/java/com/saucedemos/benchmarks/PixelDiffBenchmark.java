@@ -0,0 +1,107 @@
+package com.saucedemos.benchmarks;
+
+import com.saucedemos.visual.PixelDiff;
+import com.saucedemos.visual.Raster;
+import com.saucedemos.visual.VisualComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Rectangle;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The visual-regression diff kernel on a full-HD raster pair, no browser involved. "identical" is the common
+// passing case, "sparse" a small change (a price), "noisy" one pixel in 50 moved within the channel tolerance,
+// "changed" a failing page where the tile early exit matters.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PixelDiffBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int TOLERANCE = 8;
+
+    @Param({"identical", "sparse", "noisy", "changed"})
+    String difference;
+
+    private int[] baseline;
+    private int[] actual;
+    private Raster baselineRaster;
+    private Raster actualRaster;
+    private VisualComparator comparator;
+    // Where the cart badge sits in the header
+    private final List<Rectangle> badge = Collections.singletonList(new Rectangle(1860, 10, 30, 30));
+
+    @Setup
+    public void createRasters() {
+        Random random = new Random(42);
+        baseline = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < baseline.length; i++) {
+            // Flat bands like a page background, with some texture
+            baseline[i] = 0xff000000 | (i / WIDTH / 40 * 0x0a0a0a) | random.nextInt(4);
+        }
+        actual = baseline.clone();
+        switch (difference) {
+            case "identical":
+                break;
+            case "sparse":
+                paint(600, 400, 40, 12);
+                break;
+            case "noisy":
+                for (int i = 0; i < actual.length; i += 50) {
+                    actual[i] ^= 0x00000404;
+                }
+                break;
+            case "changed":
+                paint(0, 100, WIDTH, 600);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown difference: " + difference);
+        }
+        baselineRaster = new Raster(WIDTH, HEIGHT, baseline);
+        actualRaster = new Raster(WIDTH, HEIGHT, actual);
+        comparator = new VisualComparator(TOLERANCE, 50);
+    }
+
+    private void paint(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            for (int column = x; column < x + width; column++) {
+                actual[row * WIDTH + column] = 0xffff0000;
+            }
+        }
+    }
+
+    @Benchmark
+    public int kernel() {
+        return PixelDiff.countDifferent(baseline, actual, 0, baseline.length, TOLERANCE);
+    }
+
+    @Benchmark
+    public int kernelScalar() {
+        return PixelDiff.countDifferentScalar(baseline, actual, 0, baseline.length, TOLERANCE);
+    }
+
+    @Benchmark
+    public long compareMasked() {
+        return comparator.compare(baselineRaster, actualRaster, badge).getDifferentPixels();
+    }
+
+    @Benchmark
+    public long compareFullyMasked() {
+        return comparator.compareFully(baselineRaster, actualRaster, badge).getDifferentPixels();
+    }
+}
@@ -1,17 +1,37 @@
 package com.saucedemos.base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.saucedemos.driver.BrowserContext;
+import com.saucedemos.driver.DriverPool;
+import com.saucedemos.driver.PooledSession;
+import com.saucedemos.metrics.CommandLatencies;
+import com.saucedemos.network.HarRecorder;
+import com.saucedemos.network.NetworkMonitor;
+import com.saucedemos.network.NetworkProfile;
+import com.saucedemos.pages.CartPage;
+import com.saucedemos.pages.ProductsPage;
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.session.AuthenticatedSession;
+import com.saucedemos.session.CartState;
+import com.saucedemos.standin.StandInServer;
+import com.saucedemos.waits.WaitPolicy;
+import com.saucedemos.waits.WaitStats;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.time.Duration;
 
 public class BaseTest {
     protected static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
-    private static final String BASE_URL = "https://www.saucedemo.com";
+    private static ThreadLocal<PooledSession> session = new ThreadLocal<>();
+    private static ThreadLocal<BrowserContext> context = new ThreadLocal<>();
+    private static final String BASE_URL = resolveBaseUrl();
+    private static final boolean VERIFY_SESSION = Boolean.getBoolean("session.verify");
+    private static final NetworkProfile NETWORK_PROFILE = NetworkProfile.fromName(System.getProperty("network.profile"));
+    private static final boolean CONTEXT_ISOLATION = "context".equalsIgnoreCase(System.getProperty("isolation.mode", "browser").trim());
 
     public static WebDriver getDriver() {
         return driver.get();
@@ -19,133 +39,127 @@ public class BaseTest {
 
     @BeforeMethod
     @Parameters({"browser", "headless"})
-    public void setUp(@Optional("chrome") String browser, @Optional("false") String headless) {
-        setupDriver(browser, Boolean.parseBoolean(headless));
-        getDriver().manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        getDriver().manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        getDriver().manage().window().maximize();
+    public void setUp(@Optional("chrome") String browser, @Optional("false") String headless, Method method) {
+        WaitStats.reset();
+        CommandLatencies.startTest();
+        PageLoads.startTest(getClass().getSimpleName() + "." + method.getName());
+        boolean isolated = CONTEXT_ISOLATION || method.isAnnotationPresent(InBrowserContext.class)
+                || getClass().isAnnotationPresent(InBrowserContext.class);
+        setupDriver(browser, Boolean.parseBoolean(headless), isolated);
+
+        // Reused sessions were already reset and sent back to the base URL by the pool
+        if (session.get().isNew()) {
+            // Implicit waits stay off; page objects wait explicitly through WaitPolicy
+            getDriver().manage().timeouts().implicitlyWait(Duration.ZERO);
+            getDriver().manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+
+            // The window of a shared browser belongs to every session attached to it; tests work in their context
+            if (!session.get().isShared()) {
+                getDriver().manage().window().maximize();
+
+                // Images, fonts and third-party requests are blocked or throttled per -Dnetwork.profile
+                NetworkMonitor.attach(getDriver(), NETWORK_PROFILE, BASE_URL);
+
+                // Navigate to base URL
+                PageLoads.Navigation navigation = PageLoads.start(getDriver(), "login");
+                getDriver().get(BASE_URL);
+                navigation.finish();
+            }
+        }
+
+        // Own cookie jar and storage for this test, opened at the base URL
+        if (isolated) {
+            context.set(BrowserContext.open(getDriver(), BASE_URL));
+        }
+
+        NetworkMonitor networkMonitor = NetworkMonitor.of(getDriver());
+        if (networkMonitor != null) {
+            networkMonitor.reset();
+        }
 
-        // Navigate to base URL
-        getDriver().get(BASE_URL);
+        // -Dhar.record=<test classes>: capture the test's traffic for protocol-level replay (HarReplay)
+        if (HarRecorder.isEnabledFor(getClass()) && !session.get().isShared() && context.get() == null
+                && HarRecorder.start(getDriver(), getClass().getSimpleName() + "." + method.getName()) != null) {
+            // Every recording starts from the login page, also on a reused session
+            getDriver().get(BASE_URL);
+        }
 
         // Wait for page to be ready
-        org.openqa.selenium.support.ui.WebDriverWait wait =
-                new org.openqa.selenium.support.ui.WebDriverWait(getDriver(), Duration.ofSeconds(10));
-        wait.until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(
+        new WaitPolicy(getDriver()).until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(
                 org.openqa.selenium.By.id("user-name")));
     }
 
-    @AfterMethod
-    public void tearDown() {
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
         if (getDriver() != null) {
-            getDriver().quit();
+            boolean failed = !result.isSuccess();
+            HarRecorder harRecorder = HarRecorder.of(getDriver());
+            if (harRecorder != null) {
+                try {
+                    harRecorder.finish(Paths.get("test-output", "har"));
+                } catch (IOException e) {
+                    System.err.println("Could not write HAR: " + e.getMessage());
+                }
+            }
+            if (context.get() != null) {
+                try {
+                    context.get().close();
+                } catch (Exception e) {
+                    // Don't hand out a session whose windows are in an unknown state
+                    failed = true;
+                }
+                context.remove();
+            }
+            DriverPool.release(session.get(), failed, BASE_URL);
+            session.remove();
             driver.remove();
         }
     }
 
-    private void setupDriver(String browser, boolean headless) {
-        switch (browser.toLowerCase()) {
-            case "chrome":
-            case "chrome-headless":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-
-                // Essential Chrome options for automation
-                chromeOptions.addArguments("--no-sandbox");
-                chromeOptions.addArguments("--disable-dev-shm-usage");
-                chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
-//                chromeOptions.addExperimentalOption("useAutomationExtension", false);
-//                chromeOptions.addExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-                chromeOptions.addArguments("--disable-extensions");
-                chromeOptions.addArguments("--disable-plugins");
-                chromeOptions.addArguments("--disable-images");
-                chromeOptions.addArguments("--disable-javascript-harmony-shipping");
-                chromeOptions.addArguments("--disable-default-apps");
-                chromeOptions.addArguments("--no-default-browser-check");
-                chromeOptions.addArguments("--no-first-run");
-                chromeOptions.addArguments("--disable-default-apps");
-                chromeOptions.addArguments("--disable-popup-blocking");
-                chromeOptions.addArguments("--disable-translate");
-                chromeOptions.addArguments("--disable-background-timer-throttling");
-                chromeOptions.addArguments("--disable-renderer-backgrounding");
-                chromeOptions.addArguments("--disable-backgrounding-occluded-windows");
-                chromeOptions.addArguments("--disable-client-side-phishing-detection");
-                chromeOptions.addArguments("--disable-sync");
-                chromeOptions.addArguments("--metrics-recording-only");
-                chromeOptions.addArguments("--no-report-upload");
-                chromeOptions.addArguments("--disable-background-networking");
-
-                if (headless || browser.contains("headless")) {
-                    chromeOptions.addArguments("--headless=new");
-                    chromeOptions.addArguments("--disable-gpu");
-                    chromeOptions.addArguments("--window-size=1920,1080");
-                } else {
-                    chromeOptions.addArguments("--start-maximized");
-                }
+    @AfterSuite(alwaysRun = true)
+    public void shutdownDriverPool() {
+        DriverPool.shutdown();
+    }
 
-                // Set user agent to make it look more like a real browser
-                chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+    private void setupDriver(String browser, boolean headless, boolean isolated) {
+        PooledSession pooledSession = DriverPool.acquire(browser, headless, isolated);
+        session.set(pooledSession);
+        driver.set(pooledSession.getDriver());
+    }
 
-                driver.set(new ChromeDriver(chromeOptions));
-                break;
+    // Fixture login for tests that don't exercise the login form themselves
+    protected ProductsPage loginViaSession(String username, String password) {
+        return AuthenticatedSession.loginAs(getDriver(), BASE_URL, username, password, VERIFY_SESSION);
+    }
 
-            case "firefox":
-                try {
-                    WebDriverManager.firefoxdriver().setup();
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-
-                    if (headless) {
-                        firefoxOptions.addArguments("--headless");
-                    }
-
-                    // Try to detect Firefox binary location on Mac
-                    if (System.getProperty("os.name").toLowerCase().contains("mac")) {
-                        String[] possiblePaths = {
-                                "/Applications/Firefox.app/Contents/MacOS/firefox",
-                                "/Applications/Firefox Developer Edition.app/Contents/MacOS/firefox",
-                                "/usr/local/bin/firefox"
-                        };
-
-                        for (String path : possiblePaths) {
-                            if (new java.io.File(path).exists()) {
-                                firefoxOptions.setBinary(path);
-                                break;
-                            }
-                        }
-                    }
-                    driver.set(new FirefoxDriver(firefoxOptions));
-                } catch (Exception e) {
-                    System.err.println("Firefox not found or failed to start. Falling back to Chrome...");
-                    // Fallback to Chrome
-                    WebDriverManager.chromedriver().setup();
-                    chromeOptions = new ChromeOptions();
-                    if (headless) {
-                        chromeOptions.addArguments("--headless=new");
-                    }
-                    chromeOptions.addArguments("--no-sandbox");
-                    chromeOptions.addArguments("--disable-dev-shm-usage");
-                    chromeOptions.addArguments("--disable-gpu");
-                    chromeOptions.addArguments("--window-size=1920,1080");
-                    driver.set(new ChromeDriver(chromeOptions));
-                }
-                break;
+    // Opens the cart page already holding the given products, without clicking through the inventory
+    protected CartPage openCartWith(CartState cartState) {
+        return cartState.open(getDriver(), BASE_URL);
+    }
 
-            default:
-                throw new IllegalArgumentException("Browser not supported: " + browser);
-        }
+    // Budgets are checked against the last load of the page in the current test
+    protected void assertPageLoadUnder(String page, Duration budget) {
+        PageLoads.assertPageLoadUnder(page, budget);
+    }
 
-        // Execute script to remove webdriver property
-        if (getDriver() instanceof ChromeDriver) {
-            try {
-                ((org.openqa.selenium.JavascriptExecutor) getDriver()).executeScript(
-                        "Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
-            } catch (Exception e) {
-                // Ignore if script fails
-            }
-        }
+    // Every budget performance-budgets.properties (or -Dperf.budgets) sets for the page
+    protected void assertPageLoadWithinBudget(String page) {
+        PageLoads.assertWithinBudget(page);
     }
 
     protected String getBaseUrl() {
         return BASE_URL;
     }
-}
\ No newline at end of file
+
+    // -Dbase.url=<url> targets another deployment; -Dbase.url=standin starts the embedded replica once per JVM
+    private static String resolveBaseUrl() {
+        String configured = System.getProperty("base.url", "").trim();
+        if (configured.isEmpty()) {
+            return "https://www.saucedemo.com";
+        }
+        if (configured.equalsIgnoreCase("standin")) {
+            return StandInServer.shared().getBaseUrl();
+        }
+        return configured.endsWith("/") ? configured.substring(0, configured.length() - 1) : configured;
+    }
+}
@@ -0,0 +1,13 @@
+package com.saucedemos.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Runs a test (or every test of a class) in a fresh BrowserContext of a shared browser instead of a pooled
+// browser of its own. Use it for tests that only need a clean cookie jar; -Disolation.mode=context applies it to all.
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface InBrowserContext {
+}
@@ -0,0 +1,149 @@
+package com.saucedemos.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+// A fresh incognito-style context (its own cookie jar, storage and cache) inside the running browser, with the
+// driver switched to its window until close(). Chrome creates it over DevTools with Target.createBrowserContext,
+// which takes milliseconds instead of the seconds a new browser process does. Without DevTools it falls back
+// to a new tab with cookies and storage cleared, which isolates tests that run one after another in the
+// browser but not ones running side by side in it.
+public final class BrowserContext implements AutoCloseable {
+    private static final long WINDOW_LOOKUP_MS = 2000;
+    // Drivers currently switched to a context window; their DevTools session is still attached to the previous one
+    private static final Set<WebDriver> ACTIVE = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final WebDriver driver;
+    private final String previousWindow;
+    private final String window;
+    private final DevTools devTools;
+    private final String contextId;
+
+    private BrowserContext(WebDriver driver, String previousWindow, String window, DevTools devTools, String contextId) {
+        this.driver = driver;
+        this.previousWindow = previousWindow;
+        this.window = window;
+        this.devTools = devTools;
+        this.contextId = contextId;
+    }
+
+    public static BrowserContext open(WebDriver driver, String url) {
+        String previousWindow = driver.getWindowHandle();
+        ACTIVE.add(driver);
+
+        BrowserContext context = null;
+        if (driver instanceof HasDevTools) {
+            try {
+                context = openOverDevTools(driver, previousWindow);
+            } catch (RuntimeException e) {
+                System.err.println("Browser context not created, falling back to a new tab: " + e.getMessage());
+                driver.switchTo().window(previousWindow);
+            }
+        }
+        if (context == null) {
+            driver.switchTo().newWindow(WindowType.TAB);
+            context = new BrowserContext(driver, previousWindow, driver.getWindowHandle(), null, null);
+            driver.get(url);
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        }
+        driver.get(url);
+        return context;
+    }
+
+    @Override
+    public void close() {
+        try {
+            driver.switchTo().window(window);
+            driver.close();
+        } catch (WebDriverException e) {
+            // Window is already gone
+        }
+        if (contextId != null) {
+            disposeQuietly(devTools, contextId);
+        }
+        driver.switchTo().window(previousWindow);
+        ACTIVE.remove(driver);
+    }
+
+    // DevTools features that follow the page (PageSignals, page-load metrics) don't apply while this is true
+    public static boolean isActive(WebDriver driver) {
+        return ACTIVE.contains(driver);
+    }
+
+    private static BrowserContext openOverDevTools(WebDriver driver, String previousWindow) {
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+
+        // Disposed by the browser as well if this JVM dies before close()
+        String contextId = (String) devTools.send(command("Target.createBrowserContext",
+                Collections.singletonMap("disposeOnDetach", true))).get("browserContextId");
+
+        Map<String, Object> target = new HashMap<>();
+        target.put("url", "about:blank");
+        target.put("browserContextId", contextId);
+        // Same viewport as the browser's own window; new windows otherwise open at the platform default size
+        target.put("width", 1920);
+        target.put("height", 1080);
+        String targetId;
+        try {
+            targetId = (String) devTools.send(command("Target.createTarget", target)).get("targetId");
+        } catch (RuntimeException e) {
+            disposeQuietly(devTools, contextId);
+            throw e;
+        }
+
+        // chromedriver picks new targets up asynchronously. Its window handles are the target ids (older versions
+        // prefix them), which keeps sessions sharing the browser from picking up each other's windows
+        String window = null;
+        long deadline = System.currentTimeMillis() + WINDOW_LOOKUP_MS;
+        while (window == null && System.currentTimeMillis() < deadline) {
+            for (String handle : driver.getWindowHandles()) {
+                if (handle.endsWith(targetId)) {
+                    window = handle;
+                    break;
+                }
+            }
+            if (window == null) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (window == null) {
+            disposeQuietly(devTools, contextId);
+            throw new IllegalStateException("chromedriver did not report the new context's window");
+        }
+        driver.switchTo().window(window);
+        return new BrowserContext(driver, previousWindow, window, devTools, contextId);
+    }
+
+    private static void disposeQuietly(DevTools devTools, String contextId) {
+        try {
+            devTools.send(new Command<Void>("Target.disposeBrowserContext",
+                    Collections.singletonMap("browserContextId", contextId)));
+        } catch (RuntimeException e) {
+            // Disposed with the DevTools session anyway
+        }
+    }
+
+    private static Command<Map<String, Object>> command(String method, Map<String, Object> params) {
+        return new Command<>(method, params, input -> input.read(Json.MAP_TYPE));
+    }
+}
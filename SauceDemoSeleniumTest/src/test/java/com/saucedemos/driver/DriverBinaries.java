@@ -0,0 +1,105 @@
+package com.saucedemos.driver;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Resolves each driver binary once per JVM and shares the result between threads.
+// Versions are pinned in drivers.properties; binaries live in a local cache (-Ddriver.cacheDir).
+// With -Ddriver.offline=true nothing touches the network: the pinned version must already be in the cache.
+public final class DriverBinaries {
+    private static final String MANIFEST = "drivers.properties";
+    private static final boolean OFFLINE = Boolean.getBoolean("driver.offline");
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("driver.cacheDir",
+            Paths.get(System.getProperty("user.home"), ".cache", "selenium").toString()));
+
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+    private static final Properties PINNED = loadManifest();
+
+    private DriverBinaries() {
+    }
+
+    public static String chromedriver() {
+        return RESOLVED.computeIfAbsent("chromedriver",
+                name -> resolve(name, "webdriver.chrome.driver", WebDriverManager.chromedriver()));
+    }
+
+    public static String geckodriver() {
+        return RESOLVED.computeIfAbsent("geckodriver",
+                name -> resolve(name, "webdriver.gecko.driver", WebDriverManager.firefoxdriver()));
+    }
+
+    private static String resolve(String driverName, String systemProperty, WebDriverManager manager) {
+        String version = PINNED.getProperty(driverName + ".version", "").trim();
+        String path = OFFLINE ? findInCache(driverName, version) : download(manager, version);
+
+        // Selenium uses this binary directly instead of running its own driver resolution
+        System.setProperty(systemProperty, path);
+        return path;
+    }
+
+    private static String download(WebDriverManager manager, String version) {
+        manager.cachePath(CACHE_DIR.toString());
+        if (!version.isEmpty()) {
+            manager.driverVersion(version).avoidBrowserDetection();
+        }
+        manager.setup();
+        return manager.getDownloadedDriverPath();
+    }
+
+    private static String findInCache(String driverName, String version) {
+        if (version.isEmpty()) {
+            throw new IllegalStateException("Offline driver resolution needs a pinned " + driverName
+                    + ".version in " + MANIFEST);
+        }
+        String binaryName = System.getProperty("os.name").toLowerCase().contains("win")
+                ? driverName + ".exe" : driverName;
+
+        Optional<Path> binary = Optional.empty();
+        if (Files.isDirectory(CACHE_DIR)) {
+            // Matches the WebDriverManager cache layout: <cache>/<driver>/<os>/<version>/<binary>
+            try (Stream<Path> files = Files.walk(CACHE_DIR)) {
+                binary = files.filter(file -> file.getFileName().toString().equals(binaryName))
+                        .filter(file -> inVersionDirectory(file, version))
+                        .filter(Files::isExecutable)
+                        .findFirst();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read driver cache " + CACHE_DIR, e);
+            }
+        }
+        return binary.orElseThrow(() -> new IllegalStateException(driverName + " " + version
+                + " is not in the driver cache " + CACHE_DIR + ". Run once without -Ddriver.offline=true"
+                + " to populate it, or copy the binary into that directory.")).toString();
+    }
+
+    // A whole directory name, so 120.0.1 doesn't match a 120.0.10 directory or a path that merely contains it
+    private static boolean inVersionDirectory(Path file, String version) {
+        for (Path directory : CACHE_DIR.relativize(file.getParent())) {
+            if (directory.toString().equals(version)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Properties loadManifest() {
+        Properties properties = new Properties();
+        try (InputStream in = DriverBinaries.class.getClassLoader().getResourceAsStream(MANIFEST)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + MANIFEST, e);
+        }
+        return properties;
+    }
+}
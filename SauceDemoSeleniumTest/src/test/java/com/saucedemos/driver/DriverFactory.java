@@ -0,0 +1,143 @@
+package com.saucedemos.driver;
+
+import com.saucedemos.grid.RemoteSessions;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+public final class DriverFactory {
+
+    private DriverFactory() {
+    }
+
+    public static WebDriver create(String browser, boolean headless) {
+        // -Ddriver.mode=remote sends the same options to a Selenium Grid instead of starting a local driver
+        if (RemoteSessions.isEnabled()) {
+            return createRemote(browser, headless);
+        }
+
+        WebDriver webDriver;
+        switch (browser.toLowerCase()) {
+            case "chrome":
+            case "chrome-headless":
+                DriverBinaries.chromedriver();
+                ChromeOptions chromeOptions = chromeOptions(headless || browser.contains("headless"));
+                webDriver = new ChromeDriver(chromeOptions);
+                break;
+
+            case "firefox":
+                try {
+                    DriverBinaries.geckodriver();
+                    FirefoxOptions firefoxOptions = firefoxOptions(headless);
+
+                    // Try to detect Firefox binary location on Mac
+                    if (System.getProperty("os.name").toLowerCase().contains("mac")) {
+                        String[] possiblePaths = {
+                                "/Applications/Firefox.app/Contents/MacOS/firefox",
+                                "/Applications/Firefox Developer Edition.app/Contents/MacOS/firefox",
+                                "/usr/local/bin/firefox"
+                        };
+
+                        for (String path : possiblePaths) {
+                            if (new java.io.File(path).exists()) {
+                                firefoxOptions.setBinary(path);
+                                break;
+                            }
+                        }
+                    }
+                    webDriver = new FirefoxDriver(firefoxOptions);
+                } catch (Exception e) {
+                    System.err.println("Firefox not found or failed to start. Falling back to Chrome...");
+                    // Fallback to Chrome
+                    DriverBinaries.chromedriver();
+                    chromeOptions = new ChromeOptions();
+                    if (headless) {
+                        chromeOptions.addArguments("--headless=new");
+                    }
+                    chromeOptions.addArguments("--no-sandbox");
+                    chromeOptions.addArguments("--disable-dev-shm-usage");
+                    chromeOptions.addArguments("--disable-gpu");
+                    chromeOptions.addArguments("--window-size=1920,1080");
+                    webDriver = new ChromeDriver(chromeOptions);
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+
+        // Execute script to remove webdriver property
+        if (webDriver instanceof ChromeDriver) {
+            try {
+                ((JavascriptExecutor) webDriver).executeScript(
+                        "Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
+            } catch (Exception e) {
+                // Ignore if script fails
+            }
+        }
+        return webDriver;
+    }
+
+    private static WebDriver createRemote(String browser, boolean headless) {
+        switch (browser.toLowerCase()) {
+            case "chrome":
+            case "chrome-headless":
+                return RemoteSessions.create(chromeOptions(headless || browser.contains("headless")));
+            case "firefox":
+                return RemoteSessions.create(firefoxOptions(headless));
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+
+    private static ChromeOptions chromeOptions(boolean headless) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+
+        // Essential Chrome options for automation
+        chromeOptions.addArguments("--no-sandbox");
+        chromeOptions.addArguments("--disable-dev-shm-usage");
+        chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
+//        chromeOptions.addExperimentalOption("useAutomationExtension", false);
+//        chromeOptions.addExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
+        chromeOptions.addArguments("--disable-extensions");
+        chromeOptions.addArguments("--disable-plugins");
+        chromeOptions.addArguments("--disable-javascript-harmony-shipping");
+        chromeOptions.addArguments("--disable-default-apps");
+        chromeOptions.addArguments("--no-default-browser-check");
+        chromeOptions.addArguments("--no-first-run");
+        chromeOptions.addArguments("--disable-default-apps");
+        chromeOptions.addArguments("--disable-popup-blocking");
+        chromeOptions.addArguments("--disable-translate");
+        chromeOptions.addArguments("--disable-background-timer-throttling");
+        chromeOptions.addArguments("--disable-renderer-backgrounding");
+        chromeOptions.addArguments("--disable-backgrounding-occluded-windows");
+        chromeOptions.addArguments("--disable-client-side-phishing-detection");
+        chromeOptions.addArguments("--disable-sync");
+        chromeOptions.addArguments("--metrics-recording-only");
+        chromeOptions.addArguments("--no-report-upload");
+        chromeOptions.addArguments("--disable-background-networking");
+
+        if (headless) {
+            chromeOptions.addArguments("--headless=new");
+            chromeOptions.addArguments("--disable-gpu");
+            chromeOptions.addArguments("--window-size=1920,1080");
+        } else {
+            chromeOptions.addArguments("--start-maximized");
+        }
+
+        // Set user agent to make it look more like a real browser
+        chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+        return chromeOptions;
+    }
+
+    private static FirefoxOptions firefoxOptions(boolean headless) {
+        FirefoxOptions firefoxOptions = new FirefoxOptions();
+        if (headless) {
+            firefoxOptions.addArguments("--headless");
+        }
+        return firefoxOptions;
+    }
+}
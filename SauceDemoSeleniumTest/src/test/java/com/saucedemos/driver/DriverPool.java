@@ -0,0 +1,98 @@
+package com.saucedemos.driver;
+
+import com.saucedemos.metrics.CommandTimingListener;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Keeps warm browser sessions keyed by browser + headless flag so tests don't pay for a browser launch each time.
+// Configure with -Dpool.maxUses=N (1 disables reuse, i.e. one browser per test as before).
+public final class DriverPool {
+    private static final int MAX_USES = Integer.getInteger("pool.maxUses", 20);
+    private static final boolean TIME_COMMANDS = Boolean.parseBoolean(System.getProperty("metrics.commandTiming", "true"));
+    private static final Map<String, Deque<PooledSession>> IDLE = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdown));
+    }
+
+    private DriverPool() {
+    }
+
+    public static PooledSession acquire(String browser, boolean headless) {
+        return acquire(browser, headless, false);
+    }
+
+    // sharedBrowser attaches to the JVM's long-lived Chrome instead of launching a browser, for tests that
+    // isolate themselves in a BrowserContext; browsers that can't be shared get their own as usual
+    public static PooledSession acquire(String browser, boolean headless, boolean sharedBrowser) {
+        boolean shared = sharedBrowser && SharedBrowser.supports(browser);
+        String key = browser.toLowerCase() + ":" + headless + (shared ? ":shared" : "");
+        PooledSession session = IDLE.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).pollFirst();
+        if (session == null) {
+            WebDriver driver = shared ? SharedBrowser.attach(browser, headless) : DriverFactory.create(browser, headless);
+            session = new PooledSession(key, TIME_COMMANDS ? CommandTimingListener.decorate(driver) : driver, shared);
+        }
+        session.markUsed();
+        return session;
+    }
+
+    // Returns the session to the pool after wiping its state, or quits it when it failed or is worn out
+    public static void release(PooledSession session, boolean failed, String baseUrl) {
+        if (session == null) {
+            return;
+        }
+        // Shared sessions keep their state in the BrowserContext the test closed, and their window belongs to
+        // every session attached to the browser, so there is nothing to wipe or navigate. Checked last, so a
+        // session that is quit anyway isn't reset first
+        WebDriver driver = session.getDriver();
+        if (failed || session.getUses() >= MAX_USES || !(session.isShared() ? isAlive(driver) : reset(driver, baseUrl))) {
+            quitQuietly(driver);
+            return;
+        }
+        IDLE.computeIfAbsent(session.getKey(), k -> new ConcurrentLinkedDeque<>()).offerFirst(session);
+    }
+
+    public static void shutdown() {
+        for (Deque<PooledSession> sessions : IDLE.values()) {
+            PooledSession session;
+            while ((session = sessions.pollFirst()) != null) {
+                quitQuietly(session.getDriver());
+            }
+        }
+        SharedBrowser.shutdown();
+    }
+
+    private static boolean reset(WebDriver driver, String baseUrl) {
+        try {
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.get(baseUrl);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            // Session is already gone
+        }
+    }
+}
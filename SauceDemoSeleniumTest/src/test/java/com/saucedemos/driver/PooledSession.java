@@ -0,0 +1,42 @@
+package com.saucedemos.driver;
+
+import org.openqa.selenium.WebDriver;
+
+public class PooledSession {
+    private final String key;
+    private final WebDriver driver;
+    private final boolean shared;
+    private int uses;
+
+    PooledSession(String key, WebDriver driver, boolean shared) {
+        this.key = key;
+        this.driver = driver;
+        this.shared = shared;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Attached to the shared browser rather than owning one (see SharedBrowser)
+    public boolean isShared() {
+        return shared;
+    }
+
+    // A session that has not been handed out before still needs timeouts, window size and first navigation
+    public boolean isNew() {
+        return uses == 1;
+    }
+
+    public int getUses() {
+        return uses;
+    }
+
+    void markUsed() {
+        uses++;
+    }
+}
@@ -0,0 +1,58 @@
+package com.saucedemos.driver;
+
+import com.saucedemos.grid.RemoteSessions;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// One long-lived local Chrome per headless flag that any number of WebDriver sessions attach to through
+// chromedriver's debuggerAddress. Each attached session costs a chromedriver process rather than a browser,
+// and works in its own BrowserContext, so context-isolated tests can run concurrently in a single browser.
+// Quitting an attached session only detaches it; the session that launched the browser closes it at shutdown.
+final class SharedBrowser {
+    private static final Map<Boolean, WebDriver> OWNERS = new HashMap<>();
+
+    private SharedBrowser() {
+    }
+
+    // Attaching needs a local Chrome; anything else gets a browser of its own
+    static boolean supports(String browser) {
+        return !RemoteSessions.isEnabled() && browser.toLowerCase().startsWith("chrome");
+    }
+
+    static WebDriver attach(String browser, boolean headless) {
+        String debuggerAddress = debuggerAddress(browser, headless || browser.contains("headless"));
+        ChromeOptions options = new ChromeOptions();
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        return new ChromeDriver(options);
+    }
+
+    static synchronized void shutdown() {
+        for (WebDriver owner : OWNERS.values()) {
+            try {
+                owner.quit();
+            } catch (Exception e) {
+                // Browser is already gone
+            }
+        }
+        OWNERS.clear();
+    }
+
+    private static synchronized String debuggerAddress(String browser, boolean headless) {
+        WebDriver owner = OWNERS.get(headless);
+        if (owner == null) {
+            owner = DriverFactory.create(browser, headless);
+            OWNERS.put(headless, owner);
+        }
+        Object chromeOptions = ((HasCapabilities) owner).getCapabilities().getCapability("goog:chromeOptions");
+        Object address = chromeOptions instanceof Map ? ((Map<?, ?>) chromeOptions).get("debuggerAddress") : null;
+        if (address == null) {
+            throw new IllegalStateException("Shared Chrome did not report a debuggerAddress");
+        }
+        return address.toString();
+    }
+}
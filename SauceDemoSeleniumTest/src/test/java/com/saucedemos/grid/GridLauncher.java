@@ -0,0 +1,110 @@
+package com.saucedemos.grid;
+
+import com.saucedemos.driver.DriverBinaries;
+import org.openqa.selenium.grid.commands.Standalone;
+import org.openqa.selenium.grid.config.MapConfig;
+import org.openqa.selenium.grid.server.Server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+// Selenium Grid standalone (router, distributor, session queue and one node) running inside the test JVM,
+// so -Ddriver.mode=remote works without a separately installed Grid. The node drives the local browsers
+// through the same driver binaries DriverBinaries resolves for local sessions.
+public final class GridLauncher {
+    private static GridLauncher shared;
+
+    private final Server<?> server;
+    private final int maxSessions;
+    private final String browserName;
+
+    private GridLauncher(int port, int maxSessions, String browserName) {
+        this.maxSessions = maxSessions;
+        this.browserName = browserName;
+
+        Map<String, Object> serverSection = new HashMap<>();
+        serverSection.put("host", InetAddress.getLoopbackAddress().getHostAddress());
+        serverSection.put("port", port);
+
+        Map<String, Object> nodeSection = new HashMap<>();
+        nodeSection.put("detect-drivers", true);
+        nodeSection.put("selenium-manager", false);
+        nodeSection.put("max-sessions", maxSessions);
+        // Allows more sessions than CPU cores; sizing is exactly what this Grid is for
+        nodeSection.put("override-max-sessions", true);
+
+        Map<String, Object> sessionQueueSection = new HashMap<>();
+        sessionQueueSection.put("session-request-timeout", Integer.getInteger("grid.queueTimeoutSeconds", 300));
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("server", serverSection);
+        config.put("node", nodeSection);
+        config.put("sessionqueue", sessionQueueSection);
+
+        server = new Standalone().asServer(new MapConfig(config));
+    }
+
+    // One Grid per JVM, started on first use with -Dgrid.port (0 = any free port) and -Dgrid.maxSessions.
+    // The node only detects drivers when it starts, so it serves the browser it was started for.
+    public static synchronized GridLauncher shared(String browserName) {
+        if (shared != null && !shared.browserName.equalsIgnoreCase(browserName)) {
+            throw new IllegalStateException("The embedded Grid was started for " + shared.browserName
+                    + " and can't add " + browserName + " sessions; run each browser in its own JVM"
+                    + " or point -Dgrid.url at a Grid with both");
+        }
+        if (shared == null) {
+            // The node finds drivers through the webdriver.*.driver property this sets
+            resolveDriver(browserName);
+            int port = Integer.getInteger("grid.port", 0);
+            GridLauncher launcher = new GridLauncher(port == 0 ? freePort() : port,
+                    Integer.getInteger("grid.maxSessions", 4), browserName);
+            launcher.server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(launcher::stop));
+            System.out.println("Embedded Selenium Grid started at " + launcher.getUrl()
+                    + " with " + launcher.maxSessions + " " + browserName + " session slot(s)");
+            shared = launcher;
+        }
+        return shared;
+    }
+
+    private static void resolveDriver(String browserName) {
+        switch (browserName.toLowerCase()) {
+            case "chrome":
+                DriverBinaries.chromedriver();
+                break;
+            case "firefox":
+                DriverBinaries.geckodriver();
+                break;
+            default:
+                throw new IllegalArgumentException("The embedded Grid has no driver for " + browserName);
+        }
+    }
+
+    public URL getUrl() {
+        return server.getUrl();
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void stop() {
+        try {
+            server.stop();
+        } catch (Exception e) {
+            // Already stopped
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free port for the embedded Grid", e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.saucedemos.grid;
+
+import com.saucedemos.metrics.LatencyHistogram;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Creates sessions on a Selenium Grid for -Ddriver.mode=remote and measures how long each took.
+// Every request carries a unique tag capability; while it is pending, the Grid's GraphQL endpoint is polled
+// so the time the request spent in the session queue can be told apart from the time the node took to start
+// the browser (to within the poll interval).
+public final class RemoteSessions {
+    private static final boolean REMOTE = "remote".equalsIgnoreCase(System.getProperty("driver.mode", "local").trim());
+    private static final String REQUEST_TAG = "saucedemo:requestId";
+    private static final long POLL_INTERVAL_MS = 25;
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(Integer.getInteger("grid.queueTimeoutSeconds", 300) + 60L);
+
+    private static final LatencyHistogram TOTAL = new LatencyHistogram();
+    private static final LatencyHistogram QUEUE_WAIT = new LatencyHistogram();
+    private static final LatencyHistogram STARTUP = new LatencyHistogram();
+    private static final AtomicInteger PEAK_QUEUE = new AtomicInteger();
+    private static final AtomicInteger FAILURES = new AtomicInteger();
+    private static final AtomicBoolean GRAPHQL_AVAILABLE = new AtomicBoolean(true);
+    // Pending request tag -> last time it was seen in the queue
+    private static final Map<String, AtomicLong> PENDING = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService POLLER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grid-queue-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private static volatile URL gridUrl;
+    private static boolean polling;
+
+    private RemoteSessions() {
+    }
+
+    public static boolean isEnabled() {
+        return REMOTE;
+    }
+
+    // -Dgrid.url=<hub url>, or "embedded" (the default) for an in-process standalone Grid able to run the browser
+    public static URL getGridUrl(String browserName) {
+        String configured = System.getProperty("grid.url", "").trim();
+        if (configured.isEmpty() || configured.equalsIgnoreCase("embedded")) {
+            return GridLauncher.shared(browserName).getUrl();
+        }
+        if (gridUrl == null) {
+            synchronized (RemoteSessions.class) {
+                if (gridUrl == null) {
+                    try {
+                        gridUrl = new URL(configured);
+                    } catch (MalformedURLException e) {
+                        throw new IllegalArgumentException("Invalid grid.url: " + configured, e);
+                    }
+                }
+            }
+        }
+        return gridUrl;
+    }
+
+    public static WebDriver create(MutableCapabilities options) {
+        URL grid = getGridUrl(options.getBrowserName());
+        String requestId = UUID.randomUUID().toString();
+        options.setCapability(REQUEST_TAG, requestId);
+
+        startPolling(grid);
+        long start = System.nanoTime();
+        AtomicLong lastQueued = new AtomicLong(-1);
+        PENDING.put(requestId, lastQueued);
+        try {
+            // Augmented so DevTools (NetworkMonitor) keeps working through the Grid's CDP endpoint
+            return RemoteWebDriver.builder()
+                    .oneOf(options)
+                    .address(grid)
+                    .config(ClientConfig.defaultConfig().readTimeout(READ_TIMEOUT))
+                    .augmentUsing(new Augmenter())
+                    .build();
+        } catch (RuntimeException e) {
+            FAILURES.incrementAndGet();
+            throw e;
+        } finally {
+            long total = System.nanoTime() - start;
+            PENDING.remove(requestId);
+            long queued = lastQueued.get() < 0 ? 0 : Math.min(total, lastQueued.get() - start);
+            TOTAL.record(total);
+            QUEUE_WAIT.record(queued);
+            STARTUP.record(total - queued);
+        }
+    }
+
+    // Suite-end summary for sizing the Grid
+    public static String summary() {
+        if (TOTAL.getCount() == 0) {
+            return "Grid " + gridUrl + ": no new session requests";
+        }
+        StringBuilder summary = new StringBuilder(String.format(
+                "Grid %s: %d new session request(s), %d failed, peak queue depth %d%n", gridUrl, TOTAL.getCount(),
+                FAILURES.get(), PEAK_QUEUE.get()));
+        summary.append(line("  new session total", TOTAL));
+        summary.append(line("  queue wait", QUEUE_WAIT));
+        summary.append(line("  browser start", STARTUP));
+        if (!GRAPHQL_AVAILABLE.get()) {
+            summary.append("  (Grid GraphQL endpoint not reachable; queue wait is counted as browser start)").append(System.lineSeparator());
+        } else if (QUEUE_WAIT.percentileNanos(95) > TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MS)) {
+            summary.append("  Requests queued for a free slot; raise grid.maxSessions or add nodes, "
+                    + "or lower suite.threadCount").append(System.lineSeparator());
+        }
+        return summary.toString();
+    }
+
+    private static String line(String label, LatencyHistogram histogram) {
+        return String.format("%-20s p50 %7.0f ms, p95 %7.0f ms, max %7.0f ms%n", label,
+                histogram.percentileNanos(50) / 1e6, histogram.percentileNanos(95) / 1e6, histogram.getMaxNanos() / 1e6);
+    }
+
+    // One poller for all pending requests, however many threads are creating sessions
+    private static synchronized void startPolling(URL grid) {
+        if (!polling) {
+            POLLER.scheduleWithFixedDelay(() -> pollQueue(grid), 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            polling = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void pollQueue(URL grid) {
+        if (PENDING.isEmpty() || !GRAPHQL_AVAILABLE.get()) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(grid.toString().replaceAll("/+$", "") + "/graphql"))
+                    .timeout(Duration.ofSeconds(2))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"query\": \"{ sessionsInfo { sessionQueueRequests } }\"}"))
+                    .build();
+            HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                GRAPHQL_AVAILABLE.set(false);
+                return;
+            }
+            Map<String, Object> body = new Json().toType(response.body(), Json.MAP_TYPE);
+            Map<String, Object> data = (Map<String, Object>) body.getOrDefault("data", Collections.emptyMap());
+            Map<String, Object> info = (Map<String, Object>) data.getOrDefault("sessionsInfo", Collections.emptyMap());
+            List<Object> queued = (List<Object>) info.getOrDefault("sessionQueueRequests", Collections.emptyList());
+
+            PEAK_QUEUE.accumulateAndGet(queued.size(), Math::max);
+            long now = System.nanoTime();
+            for (Object queuedRequest : queued) {
+                String payload = String.valueOf(queuedRequest);
+                for (Map.Entry<String, AtomicLong> pending : PENDING.entrySet()) {
+                    if (payload.contains(pending.getKey())) {
+                        pending.getValue().set(now);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            GRAPHQL_AVAILABLE.set(false);
+        }
+    }
+}
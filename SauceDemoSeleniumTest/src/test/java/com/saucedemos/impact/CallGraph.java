@@ -0,0 +1,250 @@
+package com.saucedemos.impact;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Static call graph of the project's compiled classes, read with ASM. Nodes are "com.x.Class#method" (overloads
+// share a node); edges are method calls, constructor calls, lambdas and method references, and static field reads
+// (which run the owner's static initializer). Calls from Selenium or TestNG back into project code can't be seen
+// in bytecode, so instantiating a class that extends or implements a library type reaches all of its methods.
+public final class CallGraph {
+    private static final String CONFIGURATION_ANNOTATIONS = "Lorg/testng/annotations/(Before|After)(Method|Class|Test|Suite|Groups);";
+    private static final String DATA_PROVIDER = "Lorg/testng/annotations/DataProvider;";
+
+    private final String projectPrefix;
+    private final Map<String, ClassInfo> classes = new HashMap<>();
+
+    private CallGraph(String projectPackage) {
+        this.projectPrefix = projectPackage.replace('.', '/') + "/";
+    }
+
+    public static CallGraph load(Path classesDir, String projectPackage) throws IOException {
+        CallGraph graph = new CallGraph(projectPackage);
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            classFiles = files.filter(file -> file.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            try (InputStream input = Files.newInputStream(classFile)) {
+                ClassReader reader = new ClassReader(input);
+                if (reader.getClassName().startsWith(graph.projectPrefix)) {
+                    reader.accept(graph.new Reader(), ClassReader.SKIP_FRAMES);
+                }
+            }
+        }
+        return graph;
+    }
+
+    // Every method a test can run: the test itself plus the configuration and data provider methods of its class
+    // hierarchy, followed through the graph
+    public Set<String> reachableFrom(String className, String testMethod) {
+        Set<String> roots = new LinkedHashSet<>();
+        roots.add(resolve(className, testMethod));
+        for (String type = className; classes.containsKey(type); type = classes.get(type).superName) {
+            roots.addAll(classes.get(type).hooks);
+        }
+
+        Set<String> reached = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            String node = queue.poll();
+            if (!reached.add(node)) {
+                continue;
+            }
+            ClassInfo owner = classes.get(ownerOf(node));
+            if (owner == null) {
+                continue;
+            }
+            queue.add(owner.name + "#<clinit>");
+            if (node.endsWith("#<init>") && owner.callbacks) {
+                owner.methods.keySet().forEach(method -> queue.add(owner.name + "#" + method));
+            }
+            MethodInfo method = owner.methods.get(methodOf(node));
+            if (method != null) {
+                method.calls.forEach(call -> queue.add(resolve(ownerOf(call), methodOf(call))));
+            }
+        }
+        return reached;
+    }
+
+    // Classes compiled from a source file, e.g. "com/saucedemos/pages/CartPage.java" (nested classes included)
+    public Collection<String> classesOfSource(String sourcePath) {
+        List<String> compiled = new ArrayList<>();
+        for (ClassInfo info : classes.values()) {
+            if (sourcePath.equals(info.sourcePath())) {
+                compiled.add(info.name);
+            }
+        }
+        return compiled;
+    }
+
+    // The methods of a class whose line range covers the line, or an empty set when it is outside every method
+    // (fields, annotations, signatures, imports)
+    public Set<String> methodsAtLine(String className, int line) {
+        ClassInfo info = classes.get(className);
+        if (info == null) {
+            return Collections.emptySet();
+        }
+        Set<String> methods = new HashSet<>();
+        for (Map.Entry<String, MethodInfo> method : info.methods.entrySet()) {
+            for (int[] range : method.getValue().lineRanges) {
+                if (range[0] <= line && line <= range[1]) {
+                    methods.add(className + "#" + method.getKey());
+                }
+            }
+        }
+        return methods;
+    }
+
+    // Inherited methods are declared on a superclass; follow the hierarchy to the class that has the body
+    private String resolve(String className, String method) {
+        for (String type = className; classes.containsKey(type); type = classes.get(type).superName) {
+            if (classes.get(type).methods.containsKey(method)) {
+                return type + "#" + method;
+            }
+        }
+        return className + "#" + method;
+    }
+
+    static String ownerOf(String node) {
+        return node.substring(0, node.indexOf('#'));
+    }
+
+    static String methodOf(String node) {
+        return node.substring(node.indexOf('#') + 1);
+    }
+
+    private boolean isProject(String internalName) {
+        return internalName.startsWith(projectPrefix);
+    }
+
+    private static String className(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    private static final class ClassInfo {
+        private final String name;
+        private final String internalName;
+        private String superName;
+        private String sourceFile;
+        private boolean callbacks;
+        private final Map<String, MethodInfo> methods = new HashMap<>();
+        private final Set<String> hooks = new LinkedHashSet<>();
+
+        private ClassInfo(String internalName) {
+            this.internalName = internalName;
+            this.name = className(internalName);
+        }
+
+        private String sourcePath() {
+            int slash = internalName.lastIndexOf('/');
+            return sourceFile == null ? null : internalName.substring(0, slash + 1) + sourceFile;
+        }
+    }
+
+    private static final class MethodInfo {
+        private final Set<String> calls = new LinkedHashSet<>();
+        // First and last line of each overload
+        private final List<int[]> lineRanges = new ArrayList<>();
+    }
+
+    private final class Reader extends ClassVisitor {
+        private ClassInfo current;
+
+        private Reader() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            current = new ClassInfo(name);
+            current.superName = superName == null ? null : className(superName);
+            boolean librarySuper = superName != null && !superName.equals("java/lang/Object") && !isProject(superName);
+            boolean libraryInterface = interfaces != null && Stream.of(interfaces).anyMatch(type -> !isProject(type));
+            current.callbacks = librarySuper || libraryInterface;
+            classes.put(current.name, current);
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            current.sourceFile = source;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            MethodInfo method = current.methods.computeIfAbsent(name, key -> new MethodInfo());
+            int[] lines = {Integer.MAX_VALUE, Integer.MIN_VALUE};
+            method.lineRanges.add(lines);
+            ClassInfo owner = current;
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String annotation, boolean visible) {
+                    if (annotation.matches(CONFIGURATION_ANNOTATIONS) || annotation.equals(DATA_PROVIDER)) {
+                        owner.hooks.add(owner.name + "#" + name);
+                    }
+                    return null;
+                }
+
+                @Override
+                public void visitMethodInsn(int opcode, String callOwner, String callName, String callDescriptor, boolean isInterface) {
+                    call(callOwner, callName);
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String fieldOwner, String fieldName, String fieldDescriptor) {
+                    if (opcode == Opcodes.GETSTATIC || opcode == Opcodes.PUTSTATIC) {
+                        call(fieldOwner, "<clinit>");
+                    }
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String dynamicName, String dynamicDescriptor, Handle bootstrap, Object... arguments) {
+                    for (Object argument : arguments) {
+                        if (argument instanceof Handle) {
+                            Handle handle = (Handle) argument;
+                            call(handle.getOwner(), handle.getName());
+                            if (handle.getTag() == Opcodes.H_NEWINVOKESPECIAL) {
+                                call(handle.getOwner(), "<init>");
+                            }
+                        }
+                    }
+                }
+
+                @Override
+                public void visitLineNumber(int line, Label start) {
+                    lines[0] = Math.min(lines[0], line);
+                    lines[1] = Math.max(lines[1], line);
+                }
+
+                private void call(String calledOwner, String calledName) {
+                    if (isProject(calledOwner)) {
+                        method.calls.add(className(calledOwner) + "#" + calledName);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.saucedemos.impact;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The files and new-side line numbers touched by a unified diff (git diff --unified=0). A deleted file is
+// listed under its old path with no lines; a pure deletion inside a file counts the lines either side of it.
+public final class ChangedLines {
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+
+    private final Map<String, Set<Integer>> lines = new LinkedHashMap<>();
+
+    private ChangedLines() {
+    }
+
+    public static ChangedLines parse(String diff) {
+        ChangedLines changed = new ChangedLines();
+        String current = null;
+        String oldPath = null;
+        boolean deleted = false;
+        for (String line : diff.split("\\R")) {
+            if (line.startsWith("diff --git ")) {
+                int newSide = line.lastIndexOf(" b/");
+                current = newSide < 0 ? null : line.substring(newSide + 3);
+                oldPath = null;
+                deleted = false;
+                if (current != null) {
+                    changed.lines.computeIfAbsent(current, path -> new TreeSet<>());
+                }
+            } else if (line.startsWith("--- a/")) {
+                oldPath = line.substring(6);
+            } else if (line.startsWith("+++ ")) {
+                if (line.equals("+++ /dev/null") && oldPath != null) {
+                    changed.lines.remove(current);
+                    current = oldPath;
+                    deleted = true;
+                } else if (line.startsWith("+++ b/")) {
+                    current = line.substring(6);
+                }
+                changed.lines.computeIfAbsent(current, path -> new TreeSet<>());
+            } else if (current != null && !deleted) {
+                Matcher hunk = HUNK.matcher(line);
+                if (hunk.find()) {
+                    int start = Integer.parseInt(hunk.group(1));
+                    int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+                    Set<Integer> fileLines = changed.lines.get(current);
+                    if (count == 0) {
+                        fileLines.add(start);
+                        fileLines.add(start + 1);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        fileLines.add(start + i);
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    // Repository-relative path -> changed lines in the new version of the file
+    public Map<String, Set<Integer>> byFile() {
+        return lines;
+    }
+}
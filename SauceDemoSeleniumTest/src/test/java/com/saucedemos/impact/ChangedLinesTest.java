@@ -0,0 +1,67 @@
+package com.saucedemos.impact;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ChangedLinesTest {
+
+    @Test
+    public void testAddedAndModifiedLines() {
+        String diff = "diff --git a/src/Page.java b/src/Page.java\n"
+                + "--- a/src/Page.java\n"
+                + "+++ b/src/Page.java\n"
+                + "@@ -12 +12 @@ public class Page {\n"
+                + "-        return a;\n"
+                + "+        return b;\n"
+                + "@@ -30,0 +31,3 @@ public class Page {\n";
+        Assert.assertEquals(ChangedLines.parse(diff).byFile().get("src/Page.java"), lines(12, 31, 32, 33));
+    }
+
+    @Test
+    public void testPureDeletionMarksLinesEitherSide() {
+        // +9,0: nothing left on the new side; the removed lines sat between new lines 9 and 10
+        String diff = "diff --git a/src/Page.java b/src/Page.java\n"
+                + "--- a/src/Page.java\n"
+                + "+++ b/src/Page.java\n"
+                + "@@ -10,2 +9,0 @@ public class Page {\n"
+                + "-        first();\n"
+                + "-        second();\n";
+        Assert.assertEquals(ChangedLines.parse(diff).byFile().get("src/Page.java"), lines(9, 10));
+    }
+
+    @Test
+    public void testDeletedFileIsListedUnderItsOldPath() {
+        String diff = "diff --git a/src/Gone.java b/src/Gone.java\n"
+                + "deleted file mode 100644\n"
+                + "--- a/src/Gone.java\n"
+                + "+++ /dev/null\n"
+                + "@@ -1,3 +0,0 @@\n"
+                + "-package src;\n"
+                + "-\n"
+                + "-class Gone {}\n";
+        Assert.assertEquals(ChangedLines.parse(diff).byFile(),
+                Collections.singletonMap("src/Gone.java", Collections.emptySet()));
+    }
+
+    @Test
+    public void testNewFileHasAllItsLines() {
+        String diff = "diff --git a/src/New.java b/src/New.java\n"
+                + "new file mode 100644\n"
+                + "--- /dev/null\n"
+                + "+++ b/src/New.java\n"
+                + "@@ -0,0 +1,2 @@\n"
+                + "+package src;\n"
+                + "+class New {}\n";
+        Assert.assertEquals(ChangedLines.parse(diff).byFile().get("src/New.java"), lines(1, 2));
+    }
+
+    private static Set<Integer> lines(Integer... lines) {
+        Set<Integer> set = new TreeSet<>();
+        Collections.addAll(set, lines);
+        return set;
+    }
+}
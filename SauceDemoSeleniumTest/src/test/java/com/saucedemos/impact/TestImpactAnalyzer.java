@@ -0,0 +1,200 @@
+package com.saucedemos.impact;
+
+import com.saucedemos.suites.SuiteFilter;
+import com.saucedemos.suites.SuiteFilter.SuiteMethod;
+import org.testng.xml.XmlSuite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Picks the tests of testng.xml that a change can affect and writes them as target/impact/impacted.xml.
+// Each test is mapped to every project method it can reach (CallGraph over target/test-classes, so run it after
+// test-compile); a changed line inside a method affects the tests reaching that method, any other change to a
+// class (fields, locators, signatures) affects the tests reaching the class. Changes the call graph can't see
+// through run the whole suite: BaseTest, the listeners, deleted classes, and any non-Java file of this module.
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.saucedemos.impact.TestImpactAnalyzer -Dimpact.base=origin/main
+//   mvn test -Dsurefire.suiteXmlFiles=$(cat target/impact/suites.txt)
+public final class TestImpactAnalyzer {
+    private static final String PROJECT_PACKAGE = "com.saucedemos";
+    private static final String SOURCE_ROOT = "src/test/java/";
+    private static final List<String> FULL_RUN_SOURCES = Arrays.asList(
+            "com/saucedemos/base/", "com/saucedemos/listeners/");
+    private static final String PAGE_OBJECTS = "com.saucedemos.pages.";
+
+    private TestImpactAnalyzer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path baseSuite = Paths.get(System.getProperty("impact.baseSuite", "src/test/resources/testng.xml"));
+        Path outputDir = Paths.get(System.getProperty("impact.outputDir", "target/impact"));
+        Path classesDir = Paths.get(System.getProperty("impact.classesDir", "target/test-classes"));
+        String diffBase = System.getProperty("impact.base", "HEAD~1");
+        String diffFile = System.getProperty("impact.diff", "").trim();
+
+        // Paths in the diff are relative to the repository root, this module sits below it
+        Path repositoryRoot = Paths.get(git("rev-parse", "--show-toplevel").trim());
+        String modulePrefix = git("rev-parse", "--show-prefix").trim();
+        String diff = diffFile.isEmpty()
+                ? git("diff", "--unified=0", "--no-color", "--no-renames", diffBase, "--", ".")
+                : new String(Files.readAllBytes(Paths.get(diffFile)), StandardCharsets.UTF_8);
+
+        XmlSuite base = SuiteFilter.parse(baseSuite);
+        CallGraph graph = CallGraph.load(classesDir, PROJECT_PACKAGE);
+        Impact impact = analyze(ChangedLines.parse(diff), modulePrefix, repositoryRoot, graph);
+
+        List<SuiteMethod> tests = SuiteFilter.discover(base);
+        List<SuiteMethod> selected = new ArrayList<>();
+        StringBuilder map = new StringBuilder();
+        for (SuiteMethod test : tests) {
+            Set<String> reached = graph.reachableFrom(test.getClassName(), test.getMethod());
+            if (impact.fullRunReason != null || impact.affects(reached)) {
+                selected.add(test);
+            }
+            map.append(test.key()).append(System.lineSeparator());
+            for (String method : new TreeSet<>(reached)) {
+                if (method.startsWith(PAGE_OBJECTS) && !CallGraph.methodOf(method).startsWith("lambda$")
+                        && !CallGraph.methodOf(method).equals("<clinit>")) {
+                    map.append("  ").append(method).append(System.lineSeparator());
+                }
+            }
+        }
+
+        Files.createDirectories(outputDir);
+        Files.write(outputDir.resolve("impact-map.txt"), map.toString().getBytes(StandardCharsets.UTF_8));
+        String suites;
+        if (impact.fullRunReason != null) {
+            suites = baseSuite.toString();
+        } else if (selected.isEmpty()) {
+            suites = "";
+        } else {
+            Path impacted = outputDir.resolve("impacted.xml");
+            XmlSuite suite = SuiteFilter.narrow(base, base.getName() + "-impacted", selected);
+            Files.write(impacted, suite.toXml().getBytes(StandardCharsets.UTF_8));
+            suites = impacted.toString();
+        }
+        Files.write(outputDir.resolve("suites.txt"), suites.getBytes(StandardCharsets.UTF_8));
+
+        System.out.println("Changed against " + (diffFile.isEmpty() ? diffBase : diffFile) + ":");
+        impact.changedFiles.forEach(file -> System.out.println("  " + file));
+        if (impact.fullRunReason != null) {
+            System.out.println("Running the full suite: " + impact.fullRunReason);
+        } else {
+            System.out.println(selected.size() + " of " + tests.size() + " tests affected");
+            selected.forEach(test -> System.out.println("  " + test.key()));
+        }
+        System.out.println(suites.isEmpty() ? "Nothing to run" : "mvn test -Dsurefire.suiteXmlFiles=" + suites);
+    }
+
+    static Impact analyze(ChangedLines changes, String modulePrefix, Path repositoryRoot, CallGraph graph) {
+        Impact impact = new Impact();
+        for (Map.Entry<String, Set<Integer>> change : changes.byFile().entrySet()) {
+            String path = change.getKey();
+            if (!path.startsWith(modulePrefix)) {
+                // Other modules and repository files (README, benchmarks) don't change what the suite runs
+                continue;
+            }
+            impact.changedFiles.add(path);
+            String relative = path.substring(modulePrefix.length());
+            if (!relative.startsWith(SOURCE_ROOT) || !relative.endsWith(".java")) {
+                impact.fullRun(relative + " is not test source");
+                continue;
+            }
+            String source = relative.substring(SOURCE_ROOT.length());
+            if (FULL_RUN_SOURCES.stream().anyMatch(source::startsWith)) {
+                impact.fullRun(source + " runs around every test");
+                continue;
+            }
+            List<String> classes = new ArrayList<>(graph.classesOfSource(source));
+            if (!Files.exists(repositoryRoot.resolve(path)) || classes.isEmpty()) {
+                impact.fullRun(source + " was deleted or is not compiled");
+                continue;
+            }
+            if (change.getValue().isEmpty()) {
+                impact.changedClasses.addAll(classes);
+            }
+            for (int line : change.getValue()) {
+                Set<String> methods = new LinkedHashSet<>();
+                for (String className : classes) {
+                    methods.addAll(graph.methodsAtLine(className, line));
+                }
+                if (methods.isEmpty()) {
+                    impact.changedClasses.addAll(classes);
+                } else {
+                    impact.changedMethods.addAll(methods);
+                }
+            }
+        }
+        return impact;
+    }
+
+    private static String git(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        // Only stdout is parsed; warnings on stderr (e.g. about line endings) would otherwise end up in the diff.
+        // stderr goes to a file so a full pipe can't stall git while stdout is read.
+        Path errors = Files.createTempFile("git-stderr", ".txt");
+        try {
+            Process process = new ProcessBuilder(command).redirectError(errors.toFile()).start();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (InputStream input = process.getInputStream()) {
+                input.transferTo(output);
+            }
+            if (process.waitFor() != 0) {
+                String message = new String(Files.readAllBytes(errors), StandardCharsets.UTF_8).trim();
+                throw new IllegalStateException(String.join(" ", command) + " failed: " + message);
+            }
+            return output.toString(StandardCharsets.UTF_8.name());
+        } finally {
+            Files.deleteIfExists(errors);
+        }
+    }
+
+    static final class Impact {
+        private final Set<String> changedFiles = new LinkedHashSet<>();
+        private final Set<String> changedMethods = new LinkedHashSet<>();
+        private final Set<String> changedClasses = new LinkedHashSet<>();
+        private String fullRunReason;
+
+        // Why the whole suite has to run, or null when the call graph can narrow it
+        String getFullRunReason() {
+            return fullRunReason;
+        }
+
+        Set<String> getChangedMethods() {
+            return changedMethods;
+        }
+
+        Set<String> getChangedClasses() {
+            return changedClasses;
+        }
+
+        private void fullRun(String reason) {
+            if (fullRunReason == null) {
+                fullRunReason = reason;
+            }
+        }
+
+        private boolean affects(Set<String> reached) {
+            for (String method : reached) {
+                if (changedMethods.contains(method) || changedClasses.contains(CallGraph.ownerOf(method))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.saucedemos.impact;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Runs against this module's own compiled classes, with the module directory standing in for the repository root
+public class TestImpactAnalyzerTest {
+    private static final String CART_PAGE = "src/test/java/com/saucedemos/pages/CartPage.java";
+
+    private CallGraph graph;
+
+    @BeforeClass
+    public void loadCallGraph() throws IOException {
+        graph = CallGraph.load(Paths.get("target/test-classes"), "com.saucedemos");
+    }
+
+    @Test
+    public void testChangeInsideMethodNarrowsToThatMethod() throws IOException {
+        int line = lineOf(CART_PAGE, "return cartItems.size();");
+        TestImpactAnalyzer.Impact impact = analyze(modified(CART_PAGE, "@@ -" + line + " +" + line + " @@"));
+
+        Assert.assertNull(impact.getFullRunReason());
+        Assert.assertTrue(impact.getChangedClasses().isEmpty(), "Changed classes: " + impact.getChangedClasses());
+        Assert.assertEquals(impact.getChangedMethods().size(), 1);
+        Assert.assertTrue(impact.getChangedMethods().iterator().next()
+                .startsWith("com.saucedemos.pages.CartPage#getCartItemsCount"), "Changed: " + impact.getChangedMethods());
+    }
+
+    @Test
+    public void testLocatorChangeFallsBackToClass() throws IOException {
+        int line = lineOf(CART_PAGE, "@FindBy(id = \"checkout\")");
+        TestImpactAnalyzer.Impact impact = analyze(modified(CART_PAGE, "@@ -" + line + " +" + line + " @@"));
+
+        Assert.assertNull(impact.getFullRunReason());
+        Assert.assertTrue(impact.getChangedMethods().isEmpty(), "Changed methods: " + impact.getChangedMethods());
+        Assert.assertTrue(impact.getChangedClasses().contains("com.saucedemos.pages.CartPage"));
+    }
+
+    @Test
+    public void testPureDeletionInsideMethodNarrowsToThatMethod() throws IOException {
+        // A statement removed just before the return line
+        int line = lineOf(CART_PAGE, "return cartItems.size();");
+        TestImpactAnalyzer.Impact impact = analyze(modified(CART_PAGE,
+                "@@ -" + line + " +" + (line - 1) + ",0 @@"));
+
+        Assert.assertNull(impact.getFullRunReason());
+        Assert.assertTrue(impact.getChangedMethods().stream()
+                .anyMatch(method -> method.startsWith("com.saucedemos.pages.CartPage#getCartItemsCount")),
+                "Changed: " + impact.getChangedMethods());
+    }
+
+    @Test
+    public void testDeletedFileRunsEverything() {
+        String path = "src/test/java/com/saucedemos/pages/CheckoutPage.java";
+        String diff = "diff --git a/" + path + " b/" + path + "\n"
+                + "deleted file mode 100644\n"
+                + "--- a/" + path + "\n"
+                + "+++ /dev/null\n"
+                + "@@ -1,20 +0,0 @@\n";
+        TestImpactAnalyzer.Impact impact = analyze(diff);
+
+        Assert.assertNotNull(impact.getFullRunReason());
+        Assert.assertTrue(impact.getFullRunReason().contains("was deleted"), impact.getFullRunReason());
+    }
+
+    @Test
+    public void testBaseAndListenerChangesRunEverything() {
+        for (String path : List.of("src/test/java/com/saucedemos/base/BaseTest.java",
+                "src/test/java/com/saucedemos/listeners/TestListener.java")) {
+            TestImpactAnalyzer.Impact impact = analyze(modified(path, "@@ -40 +40 @@"));
+            Assert.assertNotNull(impact.getFullRunReason(), path);
+            Assert.assertTrue(impact.getFullRunReason().contains("runs around every test"), impact.getFullRunReason());
+        }
+    }
+
+    @Test
+    public void testNonSourceFileRunsEverything() {
+        TestImpactAnalyzer.Impact impact = analyze(modified("src/test/resources/testng.xml", "@@ -3 +3 @@"));
+
+        Assert.assertNotNull(impact.getFullRunReason());
+    }
+
+    @Test
+    public void testOtherModulesAreIgnored() {
+        TestImpactAnalyzer.Impact impact = TestImpactAnalyzer.analyze(
+                ChangedLines.parse(modified("README.md", "@@ -1 +1 @@")), "SauceDemoSeleniumTest/", Paths.get(""), graph);
+
+        Assert.assertNull(impact.getFullRunReason());
+        Assert.assertTrue(impact.getChangedMethods().isEmpty());
+        Assert.assertTrue(impact.getChangedClasses().isEmpty());
+    }
+
+    private TestImpactAnalyzer.Impact analyze(String diff) {
+        return TestImpactAnalyzer.analyze(ChangedLines.parse(diff), "", Paths.get(""), graph);
+    }
+
+    private static String modified(String path, String hunk) {
+        return "diff --git a/" + path + " b/" + path + "\n"
+                + "--- a/" + path + "\n"
+                + "+++ b/" + path + "\n"
+                + hunk + "\n";
+    }
+
+    private static int lineOf(String path, String text) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).contains(text)) {
+                return i + 1;
+            }
+        }
+        throw new AssertionError(text + " not found in " + path);
+    }
+}
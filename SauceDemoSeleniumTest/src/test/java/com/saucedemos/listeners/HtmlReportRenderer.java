@@ -0,0 +1,223 @@
+package com.saucedemos.listeners;
+
+import com.saucedemos.screenshots.ScreenshotStore;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Renders the HTML report from StreamingReporter event logs in two streaming passes: the first counts outcomes
+// for the summary, the second writes each test once its end event arrives. Only tests that are still open (the
+// ones running in parallel at that point of the log) are held in memory, so the size of the suite doesn't matter.
+// Tests a crashed run never finished are written at the end, marked unfinished.
+//
+//   mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.saucedemos.listeners.HtmlReportRenderer -Dexec.args="test-output/report_<timestamp>.jsonl"
+public final class HtmlReportRenderer {
+    private static final String STYLE = "body{font-family:sans-serif;margin:2em;color:#222}"
+            + ".summary span{display:inline-block;margin-right:1.5em;font-size:1.2em}"
+            + "details{border:1px solid #ddd;border-radius:4px;margin:.3em 0;padding:.3em .6em}"
+            + "summary{cursor:pointer}.PASS{color:#2e7d32}.FAIL{color:#c62828}.SKIP{color:#ef6c00}"
+            + ".INFO,.UNFINISHED{color:#555}.category{color:#888;font-size:.85em;margin-left:.5em}"
+            + "table{border-collapse:collapse}td,th{border:1px solid #ddd;padding:.2em .6em}"
+            + ".event{margin:.3em 0}.event .status{font-weight:bold;margin-right:.5em}img{max-width:600px}";
+
+    private HtmlReportRenderer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Pass the .jsonl report logs to render");
+        }
+        List<Path> logs = new ArrayList<>();
+        for (String arg : args) {
+            logs.add(Paths.get(arg));
+        }
+        String name = logs.get(0).getFileName().toString().replace(StreamingReporter.LOG_SUFFIX, "");
+        Path html = Paths.get(System.getProperty("report.html", "test-output/TestReport_" + name + ".html"));
+        render(logs, html, "Test Execution Report - " + name);
+        System.out.println("Rendered " + html);
+    }
+
+    // Logs of several shards render into one report
+    public static void render(List<Path> logs, Path html, String title) throws IOException {
+        Summary summary = new Summary();
+        for (Path log : logs) {
+            forEachEvent(log, summary::count);
+        }
+
+        Path htmlDir = html.toAbsolutePath().getParent();
+        Files.createDirectories(htmlDir);
+        try (Writer out = Files.newBufferedWriter(html, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>SauceDemo Test Automation Report</title><style>"
+                    + STYLE + "</style></head><body><h1>" + escape(title) + "</h1>");
+            out.write("<p>" + escape(String.join(", ", summary.suites)) + " &middot; " + format(summary.firstTime)
+                    + " to " + format(summary.lastTime) + " &middot; " + escape(summary.environment) + "</p>");
+            out.write("<div class=\"summary\"><span>" + summary.tests + " tests</span><span class=\"PASS\">" + summary.passed
+                    + " passed</span><span class=\"FAIL\">" + summary.failed + " failed</span><span class=\"SKIP\">"
+                    + summary.skipped + " skipped</span></div><h2>Tests</h2>");
+
+            List<String> tables = new ArrayList<>();
+            for (int i = 0; i < logs.size(); i++) {
+                String prefix = i + ":";
+                Map<String, OpenTest> open = new LinkedHashMap<>();
+                forEachEvent(logs.get(i), event -> {
+                    String type = (String) event.get("type");
+                    String key = prefix + event.get("id");
+                    if ("test".equals(type)) {
+                        open.put(key, new OpenTest((String) event.get("name"), (String) event.get("category")));
+                    } else if ("log".equals(type) && open.containsKey(key)) {
+                        open.get(key).log((String) event.get("status"), (String) event.get("details"));
+                    } else if ("screenshot".equals(type) && open.containsKey(key)) {
+                        open.get(key).screenshot(imageSource((String) event.get("hash"), htmlDir));
+                    } else if ("end-test".equals(type) && open.containsKey(key)) {
+                        out.write(open.remove(key).html(false));
+                    } else if ("table".equals(type)) {
+                        tables.add(table(event));
+                    }
+                });
+                for (OpenTest test : open.values()) {
+                    out.write(test.html(true));
+                }
+            }
+            // Suite tables (trends) are few and small
+            for (String table : tables) {
+                out.write(table);
+            }
+            out.write("</body></html>");
+        }
+    }
+
+    private static void forEachEvent(Path log, EventHandler handler) throws IOException {
+        Json json = new Json();
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> event;
+                try {
+                    event = json.toType(line, Json.MAP_TYPE);
+                } catch (RuntimeException e) {
+                    // A line cut short by a crash
+                    continue;
+                }
+                handler.accept(event);
+            }
+        }
+    }
+
+    private static String table(Map<String, Object> event) {
+        StringBuilder html = new StringBuilder("<h2>").append(escape((String) event.get("name"))).append("</h2><p>")
+                .append(escape((String) event.get("description"))).append("</p><table>");
+        boolean header = true;
+        for (Object row : (List<?>) event.get("rows")) {
+            html.append("<tr>");
+            for (Object cell : (List<?>) row) {
+                html.append(header ? "<th>" : "<td>").append(escape(String.valueOf(cell))).append(header ? "</th>" : "</td>");
+            }
+            html.append("</tr>");
+            header = false;
+        }
+        return html.append("</table>").toString();
+    }
+
+    // The store is relative to the working directory; the report sits in test-output
+    private static String imageSource(String hash, Path htmlDir) {
+        return htmlDir.relativize(ScreenshotStore.file(hash).toAbsolutePath()).toString().replace('\\', '/');
+    }
+
+    private static String format(long millis) {
+        return millis == 0 ? "-" : new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(millis));
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private interface EventHandler {
+        void accept(Map<String, Object> event) throws IOException;
+    }
+
+    private static final class Summary {
+        private final List<String> suites = new ArrayList<>();
+        private String environment = "";
+        private long firstTime;
+        private long lastTime;
+        private int tests;
+        private int passed;
+        private int failed;
+        private int skipped;
+
+        private void count(Map<String, Object> event) {
+            String type = (String) event.get("type");
+            long time = ((Number) event.get("time")).longValue();
+            firstTime = firstTime == 0 ? time : Math.min(firstTime, time);
+            lastTime = Math.max(lastTime, time);
+            if ("suite".equals(type)) {
+                Object shard = event.get("shard");
+                suites.add(event.get("name") + (shard == null ? "" : " (" + shard + ")"));
+                environment = "OS " + event.get("os") + ", Java " + event.get("java") + ", user " + event.get("user");
+            } else if ("test".equals(type)) {
+                tests++;
+            } else if ("log".equals(type)) {
+                String status = (String) event.get("status");
+                if ("PASS".equals(status)) {
+                    passed++;
+                } else if ("FAIL".equals(status)) {
+                    failed++;
+                } else if ("SKIP".equals(status)) {
+                    skipped++;
+                }
+            }
+        }
+    }
+
+    private static final class OpenTest {
+        private final String name;
+        private final String category;
+        private final StringBuilder events = new StringBuilder();
+        private String status = "INFO";
+
+        private OpenTest(String name, String category) {
+            this.name = name;
+            this.category = category;
+        }
+
+        // Details are HTML already (metric summaries come as <pre> blocks), as they were for Extent
+        private void log(String eventStatus, String details) {
+            if (!"INFO".equals(eventStatus)) {
+                status = eventStatus;
+            }
+            events.append("<div class=\"event\"><span class=\"status ").append(escape(eventStatus)).append("\">")
+                    .append(escape(eventStatus)).append("</span>").append(details == null ? "" : details).append("</div>");
+        }
+
+        private void screenshot(String source) {
+            events.append("<div class=\"event\"><a href=\"").append(escape(source)).append("\"><img src=\"")
+                    .append(escape(source)).append("\" alt=\"screenshot\"></a></div>");
+        }
+
+        private String html(boolean unfinished) {
+            String shown = unfinished ? "UNFINISHED" : status;
+            // Failures open by default so they are visible without clicking through
+            return "<details" + ("FAIL".equals(shown) ? " open" : "") + "><summary><span class=\"" + shown + "\">"
+                    + shown + "</span> " + escape(name) + (category == null ? ""
+                    : "<span class=\"category\">" + escape(category) + "</span>") + "</summary>" + events + "</details>";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.saucedemos.listeners;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Applies -Dsuite.parallel=none|methods|classes|tests and -Dsuite.threadCount=N on top of testng.xml,
+// then reports how much wall-clock time the parallel run saved compared to running everything sequentially.
+public class ParallelSuiteListener implements IAlterSuiteListener, ISuiteListener {
+    private static final Path SEQUENTIAL_BASELINE = Paths.get("target", "sequential-wallclock.txt");
+
+    private long suiteStart;
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String parallel = System.getProperty("suite.parallel", "").trim();
+        String threadCount = System.getProperty("suite.threadCount", "").trim();
+
+        for (XmlSuite suite : suites) {
+            if (!parallel.isEmpty()) {
+                XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(parallel);
+                if (mode == null) {
+                    throw new IllegalArgumentException("Parallel mode not supported: " + parallel);
+                }
+                suite.setParallel(mode);
+            }
+            if (!threadCount.isEmpty()) {
+                suite.setThreadCount(Integer.parseInt(threadCount));
+            }
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStart = System.currentTimeMillis();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        long wallClock = System.currentTimeMillis() - suiteStart;
+        long serialTime = 0;
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            serialTime += sumDurations(suiteResult.getTestContext().getPassedTests().getAllResults());
+            serialTime += sumDurations(suiteResult.getTestContext().getFailedTests().getAllResults());
+            serialTime += sumDurations(suiteResult.getTestContext().getSkippedTests().getAllResults());
+            serialTime += sumDurations(suiteResult.getTestContext().getPassedConfigurations().getAllResults());
+            serialTime += sumDurations(suiteResult.getTestContext().getFailedConfigurations().getAllResults());
+        }
+
+        XmlSuite.ParallelMode mode = suite.getXmlSuite().getParallel();
+        boolean sequential = mode == null || !mode.isParallel();
+        int workers = sequential ? 1 : suite.getXmlSuite().getThreadCount();
+
+        System.out.printf("Suite '%s' ran with parallel=%s on %d worker(s): wall-clock %.1fs, summed test time %.1fs, speedup x%.2f%n",
+                suite.getName(), sequential ? "none" : mode, workers,
+                wallClock / 1000.0, serialTime / 1000.0, ratio(serialTime, wallClock));
+
+        if (sequential) {
+            recordSequentialBaseline(wallClock);
+        } else {
+            Long baseline = readSequentialBaseline();
+            if (baseline != null) {
+                System.out.printf("Speedup against last sequential run (%.1fs): x%.2f%n",
+                        baseline / 1000.0, ratio(baseline, wallClock));
+            }
+        }
+    }
+
+    private static long sumDurations(Iterable<ITestResult> results) {
+        long total = 0;
+        for (ITestResult result : results) {
+            total += result.getEndMillis() - result.getStartMillis();
+        }
+        return total;
+    }
+
+    private static double ratio(long serial, long wallClock) {
+        return wallClock == 0 ? 1.0 : (double) serial / wallClock;
+    }
+
+    private static void recordSequentialBaseline(long wallClock) {
+        try {
+            Files.createDirectories(SEQUENTIAL_BASELINE.getParent());
+            Files.write(SEQUENTIAL_BASELINE, Long.toString(wallClock).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not record sequential baseline: " + e.getMessage());
+        }
+    }
+
+    private static Long readSequentialBaseline() {
+        try {
+            if (Files.exists(SEQUENTIAL_BASELINE)) {
+                return Long.parseLong(new String(Files.readAllBytes(SEQUENTIAL_BASELINE), StandardCharsets.UTF_8).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Could not read sequential baseline: " + e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.saucedemos.listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Added to the suites written by ShardPlanner. Surefire's own XML report is overwritten when several shard
+// suites run in one build, so each shard also writes a JUnit-format report of its own, named after the shard.
+// Configuration methods are included as test cases, as surefire does, so the planner can see their cost.
+public class ShardResultListener implements ISuiteListener {
+    public static final String SHARD_PARAMETER = "shard";
+    public static final String REPORT_DIR = "target/shard-reports";
+
+    @Override
+    public void onFinish(ISuite suite) {
+        String shard = suite.getParameter(SHARD_PARAMETER);
+        if (shard == null) {
+            return;
+        }
+
+        List<ITestResult> results = new ArrayList<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            results.addAll(context.getPassedTests().getAllResults());
+            results.addAll(context.getFailedTests().getAllResults());
+            results.addAll(context.getSkippedTests().getAllResults());
+            results.addAll(context.getPassedConfigurations().getAllResults());
+            results.addAll(context.getFailedConfigurations().getAllResults());
+            results.addAll(context.getSkippedConfigurations().getAllResults());
+        }
+        results.sort(Comparator.comparingLong(ITestResult::getStartMillis));
+
+        try {
+            Path report = Paths.get(REPORT_DIR, "TEST-" + shard + ".xml");
+            Files.createDirectories(report.getParent());
+            write(report, suite.getName(), results);
+        } catch (IOException | XMLStreamException e) {
+            System.err.println("Could not write shard report for " + shard + ": " + e.getMessage());
+        }
+    }
+
+    private static void write(Path report, String suiteName, List<ITestResult> results)
+            throws IOException, XMLStreamException {
+        int failures = 0;
+        int skipped = 0;
+        long totalMillis = 0;
+        for (ITestResult result : results) {
+            failures += result.getStatus() == ITestResult.FAILURE ? 1 : 0;
+            skipped += result.getStatus() == ITestResult.SKIP ? 1 : 0;
+            totalMillis += result.getEndMillis() - result.getStartMillis();
+        }
+
+        try (OutputStream out = Files.newOutputStream(report)) {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", suiteName);
+            xml.writeAttribute("tests", Integer.toString(results.size()));
+            xml.writeAttribute("failures", Integer.toString(failures));
+            xml.writeAttribute("errors", "0");
+            xml.writeAttribute("skipped", Integer.toString(skipped));
+            xml.writeAttribute("time", seconds(totalMillis));
+            xml.writeCharacters("\n");
+            for (ITestResult result : results) {
+                xml.writeCharacters("  ");
+                xml.writeStartElement("testcase");
+                xml.writeAttribute("classname", result.getTestClass().getName());
+                xml.writeAttribute("name", result.getMethod().getMethodName());
+                xml.writeAttribute("time", seconds(result.getEndMillis() - result.getStartMillis()));
+                if (result.getStatus() == ITestResult.FAILURE) {
+                    Throwable throwable = result.getThrowable();
+                    xml.writeStartElement("failure");
+                    xml.writeAttribute("message", throwable == null || throwable.getMessage() == null
+                            ? "" : throwable.getMessage());
+                    xml.writeAttribute("type", throwable == null ? "" : throwable.getClass().getName());
+                    xml.writeEndElement();
+                } else if (result.getStatus() == ITestResult.SKIP) {
+                    xml.writeEmptyElement("skipped");
+                }
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        }
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+}
@@ -0,0 +1,9 @@
+package com.saucedemos.listeners;
+
+// Outcome of a report log entry; INFO entries don't change the test's status
+public enum Status {
+    PASS,
+    FAIL,
+    SKIP,
+    INFO
+}
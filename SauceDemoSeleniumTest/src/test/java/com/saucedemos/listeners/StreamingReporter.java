@@ -0,0 +1,205 @@
+package com.saucedemos.listeners;
+
+import org.openqa.selenium.json.Json;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One report per suite, kept as an append-only JSON Lines event log (test-output/report_<timestamp>.jsonl).
+// Test threads only enqueue events; a single background writer appends them and flushes whenever it catches up,
+// so the log survives a crashed run and nothing about finished tests stays in memory. The queue is bounded: a
+// test thread only waits when the writer is that many events behind. The HTML report is rendered from the
+// log when the suite ends (HtmlReportRenderer, which can also render any log later on demand).
+public final class StreamingReporter {
+    public static final String SHARD_ARCHIVE_DIR = "test-output/shards";
+    public static final String LOG_SUFFIX = ".jsonl";
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final boolean RENDER_HTML = Boolean.parseBoolean(System.getProperty("report.renderHtml", "true"));
+    private static final String ID_ATTRIBUTE = "report.id";
+
+    private static final BlockingQueue<Map<String, Object>> EVENTS = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong IDS = new AtomicLong();
+    private static volatile StreamingReporter instance;
+
+    // Only touched from the writer thread
+    private final Writer log;
+    private final Json json = new Json();
+    private final Path logPath;
+    private final Path htmlPath;
+    private final String title;
+    private final Thread writer;
+    private volatile boolean stopping;
+
+    private StreamingReporter(String suiteName, String shard) throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        htmlPath = Paths.get("test-output", "TestReport_" + timestamp + (shard == null ? "" : "_" + shard) + ".html");
+        // Shard logs go where ShardReportMerger folds them into one report across shards
+        logPath = shard == null ? Paths.get("test-output", "report_" + timestamp + LOG_SUFFIX)
+                : Paths.get(SHARD_ARCHIVE_DIR, shard + LOG_SUFFIX);
+        title = "Test Execution Report - " + suiteName;
+        Files.createDirectories(logPath.toAbsolutePath().getParent());
+        log = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        Map<String, Object> start = event("suite", null);
+        start.put("name", suiteName);
+        start.put("shard", shard);
+        start.put("os", System.getProperty("os.name"));
+        start.put("java", System.getProperty("java.version"));
+        start.put("user", System.getProperty("user.name"));
+        append(start);
+        log.flush();
+
+        writer = new Thread(this::write, "report-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // shard is null for a normal run
+    public static synchronized void start(String suiteName, String shard) {
+        if (instance == null) {
+            try {
+                instance = new StreamingReporter(suiteName, shard);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not open the report log", e);
+            }
+        }
+    }
+
+    public static synchronized void stop() {
+        if (instance == null) {
+            return;
+        }
+        StreamingReporter reporter = instance;
+        instance = null;
+        reporter.stopping = true;
+        try {
+            reporter.writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            reporter.append(event("end", null));
+            reporter.log.close();
+            if (RENDER_HTML) {
+                HtmlReportRenderer.render(List.of(reporter.logPath), reporter.htmlPath, reporter.title);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not finish the report: " + e.getMessage());
+        }
+    }
+
+    public static void createTest(ITestResult result) {
+        id(result);
+    }
+
+    public static void log(ITestResult result, Status status, String details) {
+        Map<String, Object> event = event("log", id(result));
+        event.put("status", status.name());
+        event.put("details", details);
+        enqueue(event);
+    }
+
+    // Screenshots are referenced by their ScreenshotStore hash
+    public static void addScreenCapture(ITestResult result, String hash) {
+        Map<String, Object> event = event("screenshot", id(result));
+        event.put("hash", hash);
+        enqueue(event);
+    }
+
+    // Nothing more will be logged for the test; lets the renderer write it out and forget it
+    public static void endTest(ITestResult result) {
+        enqueue(event("end-test", id(result)));
+    }
+
+    // A node that belongs to the run rather than a test, e.g. trends; rows[0] is the header
+    public static void addSuiteTable(String name, String description, String[][] rows) {
+        Map<String, Object> event = event("table", null);
+        event.put("name", name);
+        event.put("description", description);
+        event.put("rows", Arrays.asList(rows));
+        enqueue(event);
+    }
+
+    // The test's id in the log; results logged before onTestStart (e.g. configuration failures) still get one
+    private static long id(ITestResult result) {
+        synchronized (result) {
+            Object id = result.getAttribute(ID_ATTRIBUTE);
+            if (id != null) {
+                return (Long) id;
+            }
+            long next = IDS.incrementAndGet();
+            result.setAttribute(ID_ATTRIBUTE, next);
+            Map<String, Object> event = event("test", next);
+            event.put("name", result.getMethod().getMethodName());
+            event.put("category", result.getTestContext() == null ? null : result.getTestContext().getName());
+            enqueue(event);
+            return next;
+        }
+    }
+
+    private static void enqueue(Map<String, Object> event) {
+        try {
+            EVENTS.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Object> event(String type, Long id) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        if (id != null) {
+            event.put("id", id);
+        }
+        event.put("time", System.currentTimeMillis());
+        return event;
+    }
+
+    private void write() {
+        while (true) {
+            Map<String, Object> event;
+            try {
+                event = EVENTS.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                if (event != null) {
+                    append(event);
+                }
+                if (EVENTS.isEmpty()) {
+                    log.flush();
+                    if (stopping) {
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                // Keep the writer alive; a broken event must not stop reporting
+                System.err.println("Report writer failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void append(Map<String, Object> event) throws IOException {
+        json.newOutput(log).setPrettyPrint(false).write(event);
+        log.write('\n');
+    }
+}
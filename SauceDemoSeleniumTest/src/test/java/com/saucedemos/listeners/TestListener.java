@@ -1,96 +1,139 @@
 package com.saucedemos.listeners;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.Status;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.saucedemos.base.BaseTest;
+import com.saucedemos.grid.RemoteSessions;
+import com.saucedemos.metrics.CommandLatencies;
+import com.saucedemos.network.NetworkMonitor;
+import com.saucedemos.performance.PageLoadTrend;
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.screenshots.ScreenshotStore;
+import com.saucedemos.support.LocatorStats;
+import com.saucedemos.waits.WaitStats;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
-public class TestListener implements ITestListener {
-    private static ExtentReports extent;
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+public class TestListener implements ITestListener, ISuiteListener {
 
     @Override
-    public void onStart(org.testng.ITestContext context) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String reportPath = "test-output/ExtentReport_" + timestamp + ".html";
-
-        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-        sparkReporter.config().setDocumentTitle("SauceDemo Test Automation Report");
-        sparkReporter.config().setReportName("Test Execution Report");
-
-        extent = new ExtentReports();
-        extent.attachReporter(sparkReporter);
-        extent.setSystemInfo("OS", System.getProperty("os.name"));
-        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-        extent.setSystemInfo("User", System.getProperty("user.name"));
+    public void onStart(ISuite suite) {
+        // One report for the whole suite, however many <test> blocks it has
+        StreamingReporter.start(suite.getName(), suite.getParameter(ShardResultListener.SHARD_PARAMETER));
     }
 
     @Override
     public void onTestStart(ITestResult result) {
-        ExtentTest extentTest = extent.createTest(result.getMethod().getMethodName());
-        test.set(extentTest);
+        StreamingReporter.createTest(result);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        test.get().log(Status.PASS, "Test passed successfully");
+        StreamingReporter.log(result, Status.PASS, "Test passed successfully");
+        logTestMetrics(result);
+        StreamingReporter.endTest(result);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        test.get().log(Status.FAIL, "Test failed: " + result.getThrowable());
+        StreamingReporter.log(result, Status.FAIL, "Test failed: " + result.getThrowable());
+        logTestMetrics(result);
 
-        // Take screenshot on failure
+        // Take screenshot on failure; only the capture itself holds up the test thread
         try {
-            String screenshotPath = captureScreenshot(result.getMethod().getMethodName());
-            test.get().addScreenCaptureFromPath(screenshotPath);
+            byte[] screenshot = ((TakesScreenshot) BaseTest.getDriver()).getScreenshotAs(OutputType.BYTES);
+            StreamingReporter.addScreenCapture(result, ScreenshotStore.store(screenshot));
         } catch (Exception e) {
-            test.get().log(Status.INFO, "Could not capture screenshot: " + e.getMessage());
+            StreamingReporter.log(result, Status.INFO, "Could not capture screenshot: " + e.getMessage());
         }
+        StreamingReporter.endTest(result);
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        test.get().log(Status.SKIP, "Test skipped: " + result.getThrowable());
+        StreamingReporter.log(result, Status.SKIP, "Test skipped: " + result.getThrowable());
+        endTestMetrics();
+        StreamingReporter.endTest(result);
     }
 
     @Override
-    public void onFinish(org.testng.ITestContext context) {
-        if (extent != null) {
-            extent.flush();
+    public void onFinish(ISuite suite) {
+        // Shard suites sharing a build keep their exports apart
+        String shard = suite.getParameter(ShardResultListener.SHARD_PARAMETER);
+        Path exportDir = shard == null ? Paths.get("test-output") : Paths.get("test-output", "shards", shard);
+
+        try {
+            Path history = PageLoadTrend.historyFile();
+            PageLoadTrend.append(history, shard == null ? suite.getName() : suite.getName() + " " + shard,
+                    PageLoads.summaries());
+            String[][] trend = PageLoadTrend.recentRuns(history);
+            if (trend.length > 1) {
+                StreamingReporter.addSuiteTable("Page load trend", "Page-load percentiles of the recent runs", trend);
+            }
+            PageLoads.export(exportDir);
+        } catch (IOException e) {
+            System.err.println("Could not export page loads: " + e.getMessage());
         }
-    }
 
-    private String captureScreenshot(String testName) {
+        // The report links screenshots by hash; have them on disk before it is rendered
+        ScreenshotStore.awaitPending();
+        StreamingReporter.stop();
+        System.out.println(ScreenshotStore.summary());
+
         try {
-            TakesScreenshot screenshot = (TakesScreenshot) BaseTest.getDriver();
-            byte[] screenshotBytes = screenshot.getScreenshotAs(OutputType.BYTES);
+            CommandLatencies.export(exportDir);
+        } catch (IOException e) {
+            System.err.println("Could not export command latencies: " + e.getMessage());
+        }
+        List<String> hotSpots = CommandLatencies.hotSpots(10);
+        if (!hotSpots.isEmpty()) {
+            System.out.println("Slowest WebDriver commands by page object:");
+            hotSpots.forEach(hotSpot -> System.out.println("  " + hotSpot));
+        }
 
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String screenshotDir = "test-output/screenshots";
-            String screenshotPath = screenshotDir + "/" + testName + "_" + timestamp + ".png";
+        // Element lookups per page object, to see what @CachedElement saves
+        for (Map.Entry<String, LocatorStats> entry : LocatorStats.all().entrySet()) {
+            System.out.println("Element lookups " + entry.getKey() + ": " + entry.getValue());
+        }
 
-            // Create directory if it doesn't exist
-            Files.createDirectories(Paths.get(screenshotDir));
+        // Session creation and queue wait on the Grid, for sizing it
+        if (RemoteSessions.isEnabled()) {
+            System.out.print(RemoteSessions.summary());
+        }
+    }
 
-            // Write screenshot to file
-            Files.write(Paths.get(screenshotPath), screenshotBytes);
+    private void logTestMetrics(ITestResult result) {
+        // Read on the test thread, which is the one that accumulated the waits
+        long waited = WaitStats.totalMillis();
+        result.setAttribute("waitMillis", waited);
+        result.setAttribute("waitSavedMillis", WaitStats.savedMillis());
+        StreamingReporter.log(result, Status.INFO, WaitStats.summary());
 
-            return screenshotPath;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to capture screenshot", e);
+        NetworkMonitor networkMonitor = NetworkMonitor.of(BaseTest.getDriver());
+        if (networkMonitor != null) {
+            StreamingReporter.log(result, Status.INFO, networkMonitor.summary());
+        }
+
+        String pageLoads = PageLoads.currentTestSummary();
+        if (pageLoads != null) {
+            StreamingReporter.log(result, Status.INFO, pageLoads);
         }
+
+        StreamingReporter.log(result, Status.INFO, CommandLatencies.currentTestSummary());
+        endTestMetrics();
+    }
+
+    // The report node has the test's numbers now; only the per-page aggregates outlive it
+    private void endTestMetrics() {
+        CommandLatencies.endTest();
+        PageLoads.endTest();
     }
-}
\ No newline at end of file
+}
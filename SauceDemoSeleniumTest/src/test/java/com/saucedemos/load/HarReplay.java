@@ -0,0 +1,403 @@
+package com.saucedemos.load;
+
+import com.saucedemos.standin.StandInServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Protocol-level load from recorded journeys: replays the HAR files HarRecorder wrote (-Dhar.record) with the JDK
+// HttpClient, one virtual thread per virtual user, so a single box can hold thousands of users instead of the few
+// dozen browsers it could run. Each user replays a recorded journey request by request, with its own credentials
+// and cart substituted for the recorded ones, then picks the next journey. Reports requests per second, latency
+// percentiles and a latency histogram, and errors per request; target/replay/replay-requests.csv keeps the numbers.
+// Requests to the app's host go to the stand-in unless replay.target names another host; hosts other than this machine
+// are refused without -Dreplay.allowRemote=true, so a replay can't turn on the public site by accident. Third-party
+// requests are left out, or with -Dreplay.thirdParty=true (which needs replay.allowRemote) sent to their own hosts.
+//
+//   mvn test -Dhar.record=CartTest,ProductTest -Dbase.url=standin
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.saucedemos.load.HarReplay -Dreplay.target=standin -Dreplay.users=2000
+public final class HarReplay {
+    // HttpClient sets these itself and refuses them from callers
+    private static final Set<String> SKIPPED_HEADERS = new TreeSet<>(Arrays.asList(
+            "connection", "content-length", "date", "expect", "from", "host", "keep-alive", "proxy-connection",
+            "te", "trailer", "transfer-encoding", "upgrade", "via", "warning"));
+    private static final Pattern ITEM_ID = Pattern.compile("([?&]id=)\\d+");
+    private static final Pattern CART_CONTENTS = Pattern.compile("(cart-contents\\W{1,4})\\[[\\d,\\s]*]");
+    private static final long[] HISTOGRAM_BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+    private static final String ALL_REQUESTS = "all requests";
+    private static final String JOURNEY = "journey";
+
+    private final List<Journey> journeys;
+    private final String target;
+    private final List<String[]> credentials;
+    private final List<Integer> items;
+    private final int users;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final Duration thinkTime;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final LoadStats stats = new LoadStats();
+    private final LongAdder bytesReceived = new LongAdder();
+    private volatile long deadline;
+
+    private HarReplay(List<Journey> journeys, String target, List<String[]> credentials, List<Integer> items) {
+        this.journeys = journeys;
+        this.target = target;
+        this.credentials = credentials;
+        this.items = items;
+        this.users = Integer.getInteger("replay.users", 1000);
+        this.rampUp = Duration.ofSeconds(Long.getLong("replay.rampUpSeconds", 10));
+        this.duration = Duration.ofSeconds(Long.getLong("replay.durationSeconds", 60));
+        this.thinkTime = Duration.ofMillis(Long.getLong("replay.thinkTimeMs", 0));
+        this.timeout = Duration.ofMillis(Long.getLong("replay.timeoutMs", 10000));
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String configured = System.getProperty("replay.target", "standin").trim();
+        if (configured.isEmpty()) {
+            configured = "standin";
+        } else if (!configured.equalsIgnoreCase("standin")) {
+            configured = configured.endsWith("/") ? configured.substring(0, configured.length() - 1) : configured;
+            if (!isLoopback(configured) && !Boolean.getBoolean("replay.allowRemote")) {
+                throw new IllegalArgumentException("Refusing to replay against " + configured
+                        + ", which is not this machine; pass -Dreplay.allowRemote=true for a host you are allowed to load");
+            }
+        }
+
+        Path har = Paths.get(System.getProperty("replay.har", "test-output/har"));
+        boolean thirdParty = Boolean.getBoolean("replay.thirdParty");
+        if (thirdParty && !Boolean.getBoolean("replay.allowRemote")) {
+            throw new IllegalArgumentException("replay.thirdParty sends requests to the recorded third-party hosts;"
+                    + " pass -Dreplay.allowRemote=true as well if you are allowed to load them");
+        }
+        List<Journey> journeys = new ArrayList<>();
+        for (Path file : harFiles(har)) {
+            Journey journey = Journey.read(file, thirdParty);
+            if (!journey.requests.isEmpty()) {
+                journeys.add(journey);
+            }
+        }
+        if (journeys.isEmpty()) {
+            throw new IllegalStateException("No recorded requests in " + har + "; record some with -Dhar.record=CartTest,ProductTest");
+        }
+
+        String target = configured.equalsIgnoreCase("standin") ? StandInServer.shared().getBaseUrl() : configured;
+
+        HarReplay replay = new HarReplay(journeys, target, credentials(), items());
+        try {
+            replay.run();
+        } finally {
+            StandInServer.stopShared();
+        }
+        Path output = Paths.get(System.getProperty("replay.outputDir", "target/replay"));
+        replay.stats.export(output.resolve("replay-requests.csv"));
+        System.out.println("Wrote " + output.resolve("replay-requests.csv"));
+    }
+
+    private static boolean isLoopback(String target) {
+        String host = URI.create(target).getHost();
+        if (host == null) {
+            throw new IllegalArgumentException("replay.target must be a base URL such as http://localhost:8080, got " + target);
+        }
+        try {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (!address.isLoopbackAddress()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (UnknownHostException e) {
+            // Can't be shown to be this machine
+            return false;
+        }
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Replaying %d journeys (%s) with %d virtual users against %s, ramp-up %ds, %ds (%s threads)%n",
+                journeys.size(), journeys.stream().map(journey -> journey.name).collect(Collectors.joining(", ")),
+                users, target, rampUp.getSeconds(), duration.getSeconds(),
+                VirtualThreads.available() ? "virtual" : "platform");
+        deadline = System.nanoTime() + rampUp.toNanos() + duration.toNanos();
+        ExecutorService executor = VirtualThreads.perTaskExecutor("replay-user");
+        for (int user = 0; user < users; user++) {
+            int index = user;
+            long startDelay = users <= 1 ? 0 : rampUp.toNanos() * user / (users - 1);
+            executor.submit(() -> virtualUser(index, startDelay));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(rampUp.toNanos() + duration.toNanos() + timeout.toNanos() * 2,
+                TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+        }
+
+        double seconds = stats.elapsedNanos() / 1e9;
+        System.out.print(stats.report());
+        System.out.println("Latency of all requests:");
+        System.out.print(stats.histogram(ALL_REQUESTS, HISTOGRAM_BOUNDS_MS));
+        System.out.printf("%.1f MB received, %.1f MB/s%n", bytesReceived.sum() / 1e6, bytesReceived.sum() / 1e6 / seconds);
+    }
+
+    private void virtualUser(int index, long startDelayNanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(startDelayNanos);
+            String[] credential = credentials.get(index % credentials.size());
+            int next = index % journeys.size();
+            while (System.nanoTime() < deadline) {
+                Journey journey = journeys.get(next);
+                next = (next + 1) % journeys.size();
+                replay(journey, new Parameters(journey, credential[0], credential[1], randomCart()));
+                if (!thinkTime.isZero()) {
+                    Thread.sleep(thinkTime.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void replay(Journey journey, Parameters parameters) throws InterruptedException {
+        long journeyStart = System.nanoTime();
+        boolean failed = false;
+        for (RecordedRequest recorded : journey.requests) {
+            String key = recorded.key;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<InputStream> response = client.send(recorded.build(target, parameters, timeout),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                long bytes;
+                try (InputStream body = response.body()) {
+                    bytes = body.transferTo(DISCARD);
+                }
+                long nanos = System.nanoTime() - start;
+                bytesReceived.add(bytes);
+                // A status the recording also got (e.g. a missing favicon) is what the app does, not an error
+                if (response.statusCode() >= 400 && response.statusCode() != recorded.status) {
+                    failed = true;
+                    stats.failure(key, "HTTP " + response.statusCode());
+                    stats.failure(ALL_REQUESTS, "HTTP " + response.statusCode());
+                } else {
+                    stats.success(key, nanos);
+                    stats.success(ALL_REQUESTS, nanos);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                failed = true;
+                stats.failure(key, e);
+                stats.failure(ALL_REQUESTS, e);
+            }
+        }
+        if (failed) {
+            stats.failure(JOURNEY, "request failed");
+        } else {
+            stats.success(JOURNEY, System.nanoTime() - journeyStart);
+        }
+    }
+
+    private List<Integer> randomCart() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> shuffled = new ArrayList<>(items);
+        Collections.shuffle(shuffled, random);
+        return shuffled.subList(0, 1 + random.nextInt(Math.min(3, shuffled.size())));
+    }
+
+    private static List<Path> harFiles(Path har) throws IOException {
+        if (!Files.isDirectory(har)) {
+            return Collections.singletonList(har);
+        }
+        try (Stream<Path> files = Files.list(har)) {
+            return files.filter(file -> file.toString().endsWith(".har")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    // -Dreplay.credentials=<csv of username,password>; by default every demo user that can log in
+    private static List<String[]> credentials() throws IOException {
+        String file = System.getProperty("replay.credentials", "").trim();
+        if (file.isEmpty()) {
+            return Stream.of("standard_user", "problem_user", "performance_glitch_user", "error_user", "visual_user")
+                    .map(user -> new String[]{user, "secret_sauce"}).collect(Collectors.toList());
+        }
+        List<String[]> credentials = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            String[] pair = line.split(",", 2);
+            if (pair.length == 2 && !line.startsWith("#")) {
+                credentials.add(new String[]{pair[0].trim(), pair[1].trim()});
+            }
+        }
+        if (credentials.isEmpty()) {
+            throw new IllegalStateException("No username,password lines in " + file);
+        }
+        return credentials;
+    }
+
+    private static List<Integer> items() {
+        return Arrays.stream(System.getProperty("replay.items", "0,1,2,3,4,5").split(","))
+                .map(String::trim).filter(id -> !id.isEmpty()).map(Integer::valueOf).collect(Collectors.toList());
+    }
+
+    // The values a journey was recorded with, replaced by each virtual user's own
+    private static final class Parameters {
+        private final Journey journey;
+        private final String username;
+        private final String password;
+        private final List<Integer> cart;
+
+        private Parameters(Journey journey, String username, String password, List<Integer> cart) {
+            this.journey = journey;
+            this.username = username;
+            this.password = password;
+            this.cart = cart;
+        }
+
+        private String apply(String text) {
+            if (text == null || text.isEmpty()) {
+                return text;
+            }
+            String result = text.replace(journey.recordedUsername, username).replace(journey.recordedPassword, password);
+            Matcher item = ITEM_ID.matcher(result);
+            if (item.find()) {
+                result = item.replaceAll("$1" + cart.get(0));
+            }
+            Matcher contents = CART_CONTENTS.matcher(result);
+            if (contents.find()) {
+                String ids = cart.stream().map(String::valueOf).collect(Collectors.joining(","));
+                result = contents.replaceAll("$1[" + ids + "]");
+            }
+            return result;
+        }
+    }
+
+    private static final class Journey {
+        private final String name;
+        private final String recordedUsername = System.getProperty("replay.recordedUsername", "standard_user");
+        private final String recordedPassword = System.getProperty("replay.recordedPassword", "secret_sauce");
+        private final List<RecordedRequest> requests = new ArrayList<>();
+
+        private Journey(String name) {
+            this.name = name;
+        }
+
+        // Requests to the host of the first document (the app) only, unless third parties are asked for
+        private static Journey read(Path file, boolean thirdParty) throws IOException {
+            Map<String, Object> har = new Json().toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+                    Json.MAP_TYPE);
+            Map<?, ?> log = (Map<?, ?>) har.get("log");
+            String fileName = file.getFileName().toString();
+            Journey journey = new Journey(fileName.substring(0, fileName.length() - ".har".length()));
+            List<Map<?, ?>> entries = new ArrayList<>();
+            for (Object item : (List<?>) log.get("entries")) {
+                Map<?, ?> entry = (Map<?, ?>) item;
+                if (url((Map<?, ?>) entry.get("request")).getScheme().startsWith("http")) {
+                    entries.add(entry);
+                }
+            }
+
+            // Found first: requests recorded before the document (e.g. a service worker's) can be from anywhere
+            String appHost = null;
+            for (Map<?, ?> entry : entries) {
+                if ("Document".equals(entry.get("_resourceType"))) {
+                    appHost = url((Map<?, ?>) entry.get("request")).getHost();
+                    break;
+                }
+            }
+            if (appHost == null && !entries.isEmpty()) {
+                appHost = url((Map<?, ?>) entries.get(0).get("request")).getHost();
+            }
+
+            for (Map<?, ?> entry : entries) {
+                Map<?, ?> request = (Map<?, ?>) entry.get("request");
+                URI uri = url(request);
+                boolean fromApp = uri.getHost() != null && uri.getHost().equalsIgnoreCase(appHost);
+                if (!fromApp && !thirdParty) {
+                    continue;
+                }
+                Map<?, ?> response = (Map<?, ?>) entry.get("response");
+                int status = response == null ? 0 : ((Number) response.get("status")).intValue();
+                journey.requests.add(new RecordedRequest(request, uri, status, fromApp));
+            }
+            return journey;
+        }
+
+        private static URI url(Map<?, ?> request) {
+            return URI.create((String) request.get("url"));
+        }
+    }
+
+    private static final class RecordedRequest {
+        private final String method;
+        private final URI uri;
+        private final List<String[]> headers = new ArrayList<>();
+        private final String body;
+        private final int status;
+        private final boolean fromApp;
+        private final String key;
+
+        private RecordedRequest(Map<?, ?> request, URI uri, int status, boolean fromApp) {
+            this.method = (String) request.get("method");
+            this.uri = uri;
+            this.status = status;
+            this.fromApp = fromApp;
+            // Third-party paths are reported under their host, apart from the app's
+            this.key = method + " " + (fromApp ? "" : uri.getHost()) + uri.getRawPath();
+            for (Object item : (List<?>) request.get("headers")) {
+                Map<?, ?> header = (Map<?, ?>) item;
+                String name = (String) header.get("name");
+                if (!name.startsWith(":") && !SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.add(new String[]{name, String.valueOf(header.get("value"))});
+                }
+            }
+            Map<?, ?> postData = (Map<?, ?>) request.get("postData");
+            this.body = postData == null ? null : (String) postData.get("text");
+        }
+
+        // The recorded request with the user's values; the app's requests go to the target origin, third-party ones
+        // to the host they were recorded for
+        private HttpRequest build(String target, Parameters parameters, Duration timeout) {
+            String url = uri.toString();
+            if (fromApp) {
+                String origin = uri.getScheme() + "://" + uri.getRawAuthority();
+                url = target + url.substring(origin.length());
+            }
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(parameters.apply(url))).timeout(timeout);
+            for (String[] header : headers) {
+                builder.header(header[0], parameters.apply(header[1]));
+            }
+            HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(parameters.apply(body));
+            return builder.method(method, publisher).build();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.saucedemos.load;
+
+import com.saucedemos.metrics.BucketedHistogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and errors per named step of a load run. Steps are reported in the order they were first recorded.
+// Recording takes no lock (see BucketedHistogram), so virtual users never queue on their own statistics.
+public class LoadStats {
+    private final Map<String, Step> steps = new ConcurrentHashMap<>();
+    private final AtomicInteger stepOrder = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    public void success(String step, long nanos) {
+        step(step).latency.record(nanos);
+    }
+
+    public void failure(String step, Throwable error) {
+        failure(step, error.getClass().getSimpleName());
+    }
+
+    public void failure(String step, String reason) {
+        Step stats = step(step);
+        stats.errors.increment();
+        LongAdder count = stats.errorsByReason.get(reason);
+        if (count == null) {
+            count = stats.errorsByReason.computeIfAbsent(reason, r -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public String report() {
+        double seconds = elapsedNanos() / 1e9;
+        Map<String, Step> snapshot = snapshot();
+        int width = 14;
+        for (String name : snapshot.keySet()) {
+            width = Math.max(width, name.length());
+        }
+        String name = "%-" + width + "s";
+        StringBuilder report = new StringBuilder(String.format(name + " %8s %8s %7s %8s %8s %8s %8s %8s %8s%n",
+                "step", "ok", "errors", "err%", "per sec", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, Step> entry : snapshot.entrySet()) {
+            Step step = entry.getValue();
+            BucketedHistogram latency = step.latency;
+            long ok = latency.getCount();
+            long errors = step.errors.sum();
+            report.append(String.format(name + " %8d %8d %6.1f%% %8.2f %8.1f %8.1f %8.1f %8.1f %8.1f%n", entry.getKey(),
+                    ok, errors, ok + errors == 0 ? 0.0 : 100.0 * errors / (ok + errors), ok / seconds,
+                    millis(latency.percentileNanos(50)), millis(latency.percentileNanos(90)),
+                    millis(latency.percentileNanos(95)), millis(latency.percentileNanos(99)),
+                    millis(latency.getMaxNanos())));
+            new TreeMap<>(step.errorsByReason).forEach((reason, count) ->
+                    report.append(String.format(name + " %8s %8d %s%n", "", "", count.sum(), reason)));
+        }
+        return report.toString();
+    }
+
+    // Counts per latency bucket of one step, e.g. for bounds 10,50,100: <=10 ms, <=50 ms, <=100 ms and above
+    public String histogram(String step, long... boundsMillis) {
+        Step stats = steps.get(step);
+        if (stats == null || stats.latency.getCount() == 0) {
+            return "";
+        }
+        long total = stats.latency.getCount();
+        StringBuilder histogram = new StringBuilder();
+        long previous = 0;
+        for (int i = 0; i <= boundsMillis.length; i++) {
+            // Bounds are matched to the nearest latency bucket, within about 3%
+            long atOrBelow = i < boundsMillis.length
+                    ? Math.min(total, stats.latency.countAtOrBelow(boundsMillis[i] * 1_000_000L)) : total;
+            long inBucket = Math.max(0, atOrBelow - previous);
+            previous = atOrBelow;
+            String label = i < boundsMillis.length ? "<= " + boundsMillis[i] + " ms" : "> " + boundsMillis[i - 1] + " ms";
+            int bar = (int) Math.round(40.0 * inBucket / total);
+            histogram.append(String.format("  %-11s %9d %6.2f%% %s%n", label, inBucket, 100.0 * inBucket / total,
+                    "#".repeat(bar)));
+        }
+        return histogram.toString();
+    }
+
+    public void export(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        double seconds = elapsedNanos() / 1e9;
+        try (Writer csv = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            csv.write("step,ok,errors,per_second,p50_ms,p90_ms,p95_ms,p99_ms,max_ms\n");
+            for (Map.Entry<String, Step> entry : snapshot().entrySet()) {
+                BucketedHistogram latency = entry.getValue().latency;
+                csv.write(String.format("\"%s\",%d,%d,%.2f,%.1f,%.1f,%.1f,%.1f,%.1f%n", entry.getKey().replace("\"", "\"\""), latency.getCount(),
+                        entry.getValue().errors.sum(), latency.getCount() / seconds,
+                        millis(latency.percentileNanos(50)), millis(latency.percentileNanos(90)),
+                        millis(latency.percentileNanos(95)), millis(latency.percentileNanos(99)),
+                        millis(latency.getMaxNanos())));
+            }
+        }
+    }
+
+    // A plain read once the step exists; computeIfAbsent locks its bin, so it is only used for the first record
+    private Step step(String name) {
+        Step step = steps.get(name);
+        return step != null ? step : steps.computeIfAbsent(name, key -> new Step(stepOrder.getAndIncrement()));
+    }
+
+    private Map<String, Step> snapshot() {
+        List<Map.Entry<String, Step>> entries = new ArrayList<>(steps.entrySet());
+        entries.sort(Comparator.comparingInt(entry -> entry.getValue().order));
+        Map<String, Step> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Step> entry : entries) {
+            snapshot.put(entry.getKey(), entry.getValue());
+        }
+        return snapshot;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Step {
+        private final int order;
+        private final BucketedHistogram latency = new BucketedHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorsByReason = new ConcurrentHashMap<>();
+
+        private Step(int order) {
+            this.order = order;
+        }
+    }
+}
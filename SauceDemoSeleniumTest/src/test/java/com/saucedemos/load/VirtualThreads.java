@@ -0,0 +1,48 @@
+package com.saucedemos.load;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One thread per task: virtual threads on JDK 21+, found reflectively because the module compiles for Java 11,
+// otherwise a cached pool of daemon platform threads
+public final class VirtualThreads {
+    // Null when virtual threads can't be used. On JDK 19/20 the method exists but throws without --enable-preview,
+    // so it is tried once rather than just looked up.
+    private static final Method VIRTUAL_EXECUTOR = virtualExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService perTaskExecutor(String name) {
+        if (VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Virtual thread executor failed after a successful probe", e);
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Whether perTaskExecutor hands out virtual threads
+    public static boolean available() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    private static Method virtualExecutorFactory() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return factory;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
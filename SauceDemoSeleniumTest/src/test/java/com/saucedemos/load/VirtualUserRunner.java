@@ -0,0 +1,214 @@
+package com.saucedemos.load;
+
+import com.saucedemos.driver.DriverFactory;
+import com.saucedemos.pages.CartPage;
+import com.saucedemos.pages.LoginPage;
+import com.saucedemos.pages.ProductsPage;
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.standin.StandInServer;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Capacity run built from the page objects: N virtual users, each on its own headless browser, repeat the
+// journey login -> add to cart -> open cart -> logout with think time between steps. Users start spread over the
+// ramp-up and stop at the end of the duration (or after load.iterations journeys). Prints throughput and
+// percentiles per step and writes them to target/load/load-steps.csv.
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.saucedemos.load.VirtualUserRunner -Dload.users=10
+public final class VirtualUserRunner {
+    private static final String[] STEPS = {"login", "add_to_cart", "open_cart", "logout"};
+
+    private final String baseUrl;
+    private final String browser;
+    private final int users;
+    private final Duration rampUp;
+    private final Duration thinkTime;
+    private final Duration duration;
+    private final int iterations;
+    private final String username;
+    private final String password;
+    private final LoadStats stats = new LoadStats();
+
+    private volatile long deadline;
+
+    private VirtualUserRunner(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.browser = System.getProperty("load.browser", "chrome");
+        this.users = Integer.getInteger("load.users", 5);
+        this.rampUp = Duration.ofSeconds(Long.getLong("load.rampUpSeconds", 10));
+        this.thinkTime = Duration.ofMillis(Long.getLong("load.thinkTimeMs", 1000));
+        this.duration = Duration.ofSeconds(Long.getLong("load.durationSeconds", 60));
+        this.iterations = Integer.getInteger("load.iterations", 0);
+        this.username = System.getProperty("load.username", "standard_user");
+        this.password = System.getProperty("load.password", "secret_sauce");
+    }
+
+    public static void main(String[] args) throws Exception {
+        VirtualUserRunner runner = new VirtualUserRunner(resolveBaseUrl());
+        // Steps time the journey only, not the page-load probes the functional suite adds to each navigation
+        PageLoads.setEnabled(false);
+        try {
+            runner.run();
+        } finally {
+            StandInServer.stopShared();
+        }
+        Path output = Paths.get(System.getProperty("load.outputDir", "target/load"));
+        runner.stats.export(output.resolve("load-steps.csv"));
+        System.out.println("Wrote " + output.resolve("load-steps.csv"));
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("%d virtual users against %s, ramp-up %ds, think time %d ms, %s (%s threads)%n", users, baseUrl,
+                rampUp.getSeconds(), thinkTime.toMillis(),
+                iterations > 0 ? iterations + " journeys each" : duration.getSeconds() + "s",
+                VirtualThreads.available() ? "virtual" : "platform");
+        deadline = System.nanoTime() + rampUp.toNanos() + duration.toNanos();
+
+        ExecutorService executor = VirtualThreads.perTaskExecutor("virtual-user");
+        List<Future<?>> running = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            long startDelay = users <= 1 ? 0 : rampUp.toNanos() * user / (users - 1);
+            running.add(executor.submit(() -> virtualUser(startDelay)));
+        }
+        executor.shutdown();
+        // Browsers that hang past the deadline are abandoned; their drivers are quit by the interrupted users
+        if (!executor.awaitTermination(rampUp.toNanos() + duration.toNanos() + TimeUnit.MINUTES.toNanos(2),
+                TimeUnit.NANOSECONDS)) {
+            running.forEach(future -> future.cancel(true));
+        }
+        System.out.print(stats.report());
+    }
+
+    private void virtualUser(long startDelayNanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(startDelayNanos);
+        } catch (InterruptedException e) {
+            return;
+        }
+        WebDriver driver = null;
+        try {
+            int journeys = 0;
+            while (System.nanoTime() < deadline && (iterations == 0 || journeys < iterations)
+                    && !Thread.currentThread().isInterrupted()) {
+                if (driver == null) {
+                    driver = startBrowser();
+                    if (driver == null) {
+                        return;
+                    }
+                }
+                if (!journey(driver)) {
+                    // The browser may be what broke; start the next journey on a fresh one
+                    quitQuietly(driver);
+                    driver = null;
+                }
+                journeys++;
+            }
+        } finally {
+            quitQuietly(driver);
+        }
+    }
+
+    private WebDriver startBrowser() {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = DriverFactory.create(browser, true);
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            stats.success("browser_start", System.nanoTime() - start);
+            return driver;
+        } catch (RuntimeException e) {
+            stats.failure("browser_start", e);
+            return null;
+        }
+    }
+
+    // One journey; false when a step failed and the rest of it was skipped
+    private boolean journey(WebDriver driver) {
+        long journeyStart = System.nanoTime();
+        String step = STEPS[0];
+        long stepStart = journeyStart;
+        try {
+            // Cookies and the cart belong to the previous journey
+            driver.manage().deleteAllCookies();
+            driver.get(baseUrl);
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+
+            stepStart = System.nanoTime();
+            ProductsPage productsPage = new LoginPage(driver).login(username, password);
+            check(productsPage.isProductsPageDisplayed(), "inventory did not load");
+            stepStart = record(step, stepStart);
+
+            step = STEPS[1];
+            productsPage.addFirstProductToCart();
+            stepStart = record(step, stepStart);
+
+            step = STEPS[2];
+            CartPage cartPage = productsPage.goToCart();
+            check(cartPage.getCartItemsCount() == 1, "cart does not hold the added product");
+            stepStart = record(step, stepStart);
+
+            step = STEPS[3];
+            // The header menu is the same on the cart page
+            new ProductsPage(driver).logout();
+            check(new LoginPage(driver).isLoginPageDisplayed(), "login page did not return");
+            record(step, stepStart);
+
+            stats.success("journey", System.nanoTime() - journeyStart);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            stats.failure(step, e);
+            stats.failure("journey", e);
+            return false;
+        }
+    }
+
+    // Records the step and thinks; the returned time starts the next step
+    private long record(String step, long stepStart) throws InterruptedException {
+        stats.success(step, System.nanoTime() - stepStart);
+        long think = thinkTime.toMillis();
+        if (think > 0) {
+            // +/-50% so users don't move in lockstep
+            Thread.sleep(think / 2 + ThreadLocalRandom.current().nextLong(think + 1));
+        }
+        return System.nanoTime();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            // Already gone
+        }
+    }
+
+    // Same values as -Dbase.url in the suite, but a load run targets the embedded stand-in unless told otherwise
+    private static String resolveBaseUrl() {
+        String configured = System.getProperty("base.url", "standin").trim();
+        if (configured.isEmpty() || configured.equalsIgnoreCase("standin")) {
+            return StandInServer.shared().getBaseUrl();
+        }
+        return configured.endsWith("/") ? configured.substring(0, configured.length() - 1) : configured;
+    }
+}
@@ -0,0 +1,87 @@
+package com.saucedemos.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies counted into log-linear buckets, 32 per power of two of microseconds, so percentiles are within about
+// 3%. Memory is fixed however many samples arrive, and recording takes no lock: load generators record from
+// thousands of virtual threads, which would pin their carriers waiting on a monitor. LatencyHistogram keeps exact
+// samples for the small per-test sets.
+public class BucketedHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(index(value / 1000));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    // Samples in the buckets up to and including the one holding nanos
+    public long countAtOrBelow(long nanos) {
+        int last = index(Math.max(0, nanos) / 1000);
+        long below = 0;
+        for (int i = 0; i <= last; i++) {
+            below += buckets.get(i);
+        }
+        return below;
+    }
+
+    // Nearest-rank percentile, p in (0, 100], as the upper edge of its bucket (never above the largest sample)
+    public long percentileNanos(double p) {
+        long samples = getCount();
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperMicros(i) * 1000 + 999, getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    // Below 32 us one bucket per microsecond; above, 32 equal buckets per power of two
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) | (index % SUB_BUCKETS) * width;
+        return lower + width - 1;
+    }
+}
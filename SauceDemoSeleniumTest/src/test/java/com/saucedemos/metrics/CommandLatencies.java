@@ -0,0 +1,149 @@
+package com.saucedemos.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// WebDriver command latencies per test invocation and per page object. An invocation's samples live on its thread,
+// so parallel data-provider invocations of one method stay apart, and only until its summary is on its report node
+// (endTest); the per-page-object histograms are bucketed, so memory doesn't grow with the suite. Those are exported
+// as CSV/JSON at suite end.
+public final class CommandLatencies {
+    private static final String NO_PAGE = "(test code)";
+
+    private static final Map<String, Map<String, BucketedHistogram>> BY_PAGE = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, LatencyHistogram>> CURRENT_TEST = new ThreadLocal<>();
+
+    private CommandLatencies() {
+    }
+
+    // Retried or repeated invocations start from a clean slate
+    public static void startTest() {
+        CURRENT_TEST.set(new HashMap<>());
+    }
+
+    // The test's summary has been logged; commands after this (e.g. in tearDown) are only counted per page
+    public static void endTest() {
+        CURRENT_TEST.remove();
+    }
+
+    public static void record(String command, long nanos) {
+        String page = callingPage();
+        BY_PAGE.computeIfAbsent(page, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(command, c -> new BucketedHistogram()).record(nanos);
+
+        Map<String, LatencyHistogram> commands = CURRENT_TEST.get();
+        if (commands != null) {
+            commands.computeIfAbsent(command, c -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    // Per-command summary of the test running on this thread, for its report node
+    public static String currentTestSummary() {
+        Map<String, LatencyHistogram> commands = CURRENT_TEST.get();
+        if (commands == null || commands.isEmpty()) {
+            return "No WebDriver commands recorded";
+        }
+        StringBuilder summary = new StringBuilder("<pre>WebDriver commands (count, p50 / p95 / p99 ms)\n");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(commands).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            summary.append(String.format("%-22s %5d  %8.1f / %8.1f / %8.1f%n", entry.getKey(), histogram.getCount(),
+                    millis(histogram.percentileNanos(50)), millis(histogram.percentileNanos(95)),
+                    millis(histogram.percentileNanos(99))));
+        }
+        return summary.append("</pre>").toString();
+    }
+
+    public static void export(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Row> rows = rows();
+
+        try (Writer csv = Files.newBufferedWriter(directory.resolve("command-latency.csv"), StandardCharsets.UTF_8)) {
+            csv.write("page,command,count,total_ms,p50_ms,p95_ms,p99_ms,max_ms\n");
+            for (Row row : rows) {
+                csv.write(String.format("\"%s\",%s,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n", row.name.replace("\"", "\"\""), row.command, row.histogram.getCount(),
+                        millis(row.histogram.getTotalNanos()), millis(row.histogram.percentileNanos(50)),
+                        millis(row.histogram.percentileNanos(95)), millis(row.histogram.percentileNanos(99)),
+                        millis(row.histogram.getMaxNanos())));
+            }
+        }
+
+        try (Writer json = Files.newBufferedWriter(directory.resolve("command-latency.json"), StandardCharsets.UTF_8)) {
+            json.write("[\n");
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                json.write(String.format("  {\"page\": \"%s\", \"command\": \"%s\", \"count\": %d, "
+                                + "\"totalMs\": %.2f, \"p50Ms\": %.2f, \"p95Ms\": %.2f, \"p99Ms\": %.2f, \"maxMs\": %.2f}%s%n",
+                        escapeJson(row.name), row.command, row.histogram.getCount(),
+                        millis(row.histogram.getTotalNanos()), millis(row.histogram.percentileNanos(50)),
+                        millis(row.histogram.percentileNanos(95)), millis(row.histogram.percentileNanos(99)),
+                        millis(row.histogram.getMaxNanos()), i < rows.size() - 1 ? "," : ""));
+            }
+            json.write("]\n");
+        }
+    }
+
+    // Page object + command combinations that took the most total time
+    public static List<String> hotSpots(int limit) {
+        List<Row> pageRows = rows();
+        pageRows.sort(Comparator.comparingLong((Row row) -> row.histogram.getTotalNanos()).reversed());
+
+        List<String> hotSpots = new ArrayList<>();
+        for (Row row : pageRows.subList(0, Math.min(limit, pageRows.size()))) {
+            hotSpots.add(String.format("%s.%s: %.0f ms total over %d calls (p95 %.1f ms)", row.name, row.command,
+                    millis(row.histogram.getTotalNanos()), row.histogram.getCount(),
+                    millis(row.histogram.percentileNanos(95))));
+        }
+        return hotSpots;
+    }
+
+    // Per-test numbers are on the report nodes; the exports hold the per-page-object histograms
+    private static List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, BucketedHistogram>> group : new TreeMap<>(BY_PAGE).entrySet()) {
+            for (Map.Entry<String, BucketedHistogram> command : new TreeMap<>(group.getValue()).entrySet()) {
+                rows.add(new Row(group.getKey(), command.getKey(), command.getValue()));
+            }
+        }
+        return rows;
+    }
+
+    // Attributes a command to the first page object on the call stack
+    private static String callingPage() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .map(StackWalker.StackFrame::getClassName)
+                .filter(className -> className.startsWith("com.saucedemos.pages."))
+                .map(className -> className.substring(className.lastIndexOf('.') + 1))
+                .findFirst()
+                .orElse(NO_PAGE));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String escapeJson(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static final class Row {
+        private final String name;
+        private final String command;
+        private final BucketedHistogram histogram;
+
+        private Row(String name, String command, BucketedHistogram histogram) {
+            this.name = name;
+            this.command = command;
+            this.histogram = histogram;
+        }
+    }
+}
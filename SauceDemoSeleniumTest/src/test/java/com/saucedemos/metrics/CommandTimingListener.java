@@ -0,0 +1,57 @@
+package com.saucedemos.metrics;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+// Times every call made through a decorated driver (and the elements/navigation objects it hands out)
+public class CommandTimingListener implements WebDriverListener {
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+    // Handed out by manage(), timeouts(), window(), switchTo() and navigate() without talking to the browser.
+    // Timeouts setters also return Timeouts but do send a command, hence the no-argument check below.
+    private static final Set<Class<?>> LOCAL_GETTERS = Set.of(WebDriver.Options.class, WebDriver.Timeouts.class,
+            WebDriver.Window.class, WebDriver.Navigation.class, WebDriver.TargetLocator.class);
+
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(new CommandTimingListener()).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isCommand(method)) {
+            STARTS.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    // toString/equals/hashCode on proxies and the getters above are local calls, not browser commands
+    private static boolean isCommand(Method method) {
+        return method.getDeclaringClass() != Object.class
+                && !(method.getParameterCount() == 0 && LOCAL_GETTERS.contains(method.getReturnType()));
+    }
+
+    private static void finish(Method method) {
+        if (!isCommand(method)) {
+            return;
+        }
+        Long start = STARTS.get().poll();
+        if (start != null) {
+            CommandLatencies.record(method.getName(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.saucedemos.metrics;
+
+import java.util.Arrays;
+
+// Exact latency samples in nanoseconds; suites are small enough that keeping every sample is cheaper than bucketing
+public class LatencyHistogram {
+    private long[] samples = new long[16];
+    private int count;
+    private long total;
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        total += nanos;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalNanos() {
+        return total;
+    }
+
+    public synchronized long getMaxNanos() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    public synchronized int countAtOrBelow(long nanos) {
+        int below = 0;
+        for (int i = 0; i < count; i++) {
+            if (samples[i] <= nanos) {
+                below++;
+            }
+        }
+        return below;
+    }
+
+    // Nearest-rank percentile, p in (0, 100]
+    public synchronized long percentileNanos(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+}
@@ -0,0 +1,238 @@
+package com.saucedemos.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records a session's HTTP traffic over DevTools and writes it as a HAR 1.2 file per test, for HarReplay.
+// -Dhar.record=CartTest,ProductTest picks the test classes to record (* records every class). Response bodies
+// are not kept; replay only needs the requests and the sizes and timings to compare against.
+public class HarRecorder {
+    private static final Map<WebDriver, HarRecorder> RECORDERS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Set<String> RECORDED_CLASSES = new TreeSet<>(Arrays.asList(
+            System.getProperty("har.record", "").trim().split("\\s*,\\s*")));
+
+    // requestId -> entry waiting for its response and body
+    private final Map<String, Map<String, Object>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Map<?, ?>> extraHeaders = new ConcurrentHashMap<>();
+    private final List<Map<String, Object>> entries = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile String testName;
+
+    private HarRecorder() {
+    }
+
+    public static boolean isEnabledFor(Class<?> testClass) {
+        return RECORDED_CLASSES.contains("*") || RECORDED_CLASSES.contains(testClass.getSimpleName());
+    }
+
+    // Starts a recording for the test, or returns null when the browser has no DevTools support
+    public static HarRecorder start(WebDriver driver, String testName) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        HarRecorder recorder = RECORDERS.get(driver);
+        if (recorder == null) {
+            recorder = new HarRecorder();
+            try {
+                DevTools devTools = ((HasDevTools) driver).getDevTools();
+                devTools.createSessionIfThereIsNotOne();
+                recorder.install(devTools);
+            } catch (RuntimeException e) {
+                System.err.println("HAR recording not started: " + e.getMessage());
+                return null;
+            }
+            RECORDERS.put(driver, recorder);
+        }
+        recorder.pending.clear();
+        recorder.extraHeaders.clear();
+        recorder.entries.clear();
+        recorder.testName = testName;
+        return recorder;
+    }
+
+    public static HarRecorder of(WebDriver driver) {
+        return driver == null ? null : RECORDERS.get(driver);
+    }
+
+    // Writes <directory>/<test>.har with the requests that completed, and stops collecting until the next start
+    public Path finish(Path directory) throws IOException {
+        String name = testName;
+        testName = null;
+        List<Map<String, Object>> recorded;
+        synchronized (entries) {
+            recorded = new ArrayList<>(entries);
+            entries.clear();
+        }
+        if (name == null || recorded.isEmpty()) {
+            return null;
+        }
+        // Completed in finishing order; replay wants the order the browser asked for them
+        recorded.sort(Comparator.comparingLong(entry -> (Long) entry.get("_sequence")));
+        for (Map<String, Object> entry : recorded) {
+            entry.remove("_sequence");
+            Map<?, ?> extra = extraHeaders.remove((String) entry.remove("_requestId"));
+            if (extra != null) {
+                // The extra-info headers are what went over the wire, Cookie included
+                @SuppressWarnings("unchecked")
+                Map<String, Object> request = (Map<String, Object>) entry.get("request");
+                request.put("headers", headers(extra));
+            }
+        }
+
+        Map<String, Object> creator = new LinkedHashMap<>();
+        creator.put("name", "SauceDemoSeleniumTest HarRecorder");
+        creator.put("version", "1.0");
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("version", "1.2");
+        log.put("creator", creator);
+        log.put("comment", name);
+        log.put("entries", recorded);
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".har");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(new Json().toJson(Collections.singletonMap("log", log)));
+        }
+        return file;
+    }
+
+    private void install(DevTools devTools) {
+        devTools.send(new Command<Void>("Network.enable", Collections.emptyMap()));
+
+        devTools.addListener(event("Network.requestWillBeSent"), params -> {
+            if (testName == null) {
+                return;
+            }
+            Map<?, ?> request = (Map<?, ?>) params.get("request");
+            Map<String, Object> harRequest = new LinkedHashMap<>();
+            harRequest.put("method", request.get("method"));
+            harRequest.put("url", request.get("url"));
+            harRequest.put("httpVersion", "HTTP/1.1");
+            harRequest.put("headers", headers((Map<?, ?>) request.get("headers")));
+            harRequest.put("queryString", Collections.emptyList());
+            harRequest.put("cookies", Collections.emptyList());
+            harRequest.put("headersSize", -1);
+            Object postData = request.get("postData");
+            harRequest.put("bodySize", postData == null ? 0 : ((String) postData).getBytes(StandardCharsets.UTF_8).length);
+            if (postData != null) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                Map<?, ?> requestHeaders = (Map<?, ?>) request.get("headers");
+                Object contentType = requestHeaders == null ? null : requestHeaders.get("Content-Type");
+                body.put("mimeType", contentType == null ? "" : contentType);
+                body.put("text", postData);
+                harRequest.put("postData", body);
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("_requestId", params.get("requestId"));
+            entry.put("_sequence", sequence.incrementAndGet());
+            entry.put("_resourceType", params.get("type"));
+            entry.put("_monotonicStart", params.get("timestamp"));
+            long wallMillis = (long) (((Number) params.get("wallTime")).doubleValue() * 1000);
+            entry.put("startedDateTime", Instant.ofEpochMilli(wallMillis).toString());
+            entry.put("request", harRequest);
+            // A redirect reuses the requestId; the earlier hop is dropped rather than completed
+            pending.put((String) params.get("requestId"), entry);
+        });
+        devTools.addListener(event("Network.requestWillBeSentExtraInfo"), params ->
+                extraHeaders.put((String) params.get("requestId"), (Map<?, ?>) params.get("headers")));
+        devTools.addListener(event("Network.responseReceived"), params -> {
+            Map<String, Object> entry = pending.get((String) params.get("requestId"));
+            if (entry == null) {
+                return;
+            }
+            Map<?, ?> response = (Map<?, ?>) params.get("response");
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("size", 0);
+            content.put("mimeType", response.get("mimeType"));
+            Map<String, Object> harResponse = new LinkedHashMap<>();
+            harResponse.put("status", response.get("status"));
+            harResponse.put("statusText", response.get("statusText"));
+            harResponse.put("httpVersion", response.get("protocol") == null ? "HTTP/1.1" : response.get("protocol"));
+            harResponse.put("headers", headers((Map<?, ?>) response.get("headers")));
+            harResponse.put("cookies", Collections.emptyList());
+            harResponse.put("content", content);
+            harResponse.put("redirectURL", "");
+            harResponse.put("headersSize", -1);
+            harResponse.put("bodySize", -1);
+            entry.put("response", harResponse);
+
+            Map<?, ?> timing = (Map<?, ?>) response.get("timing");
+            if (timing != null) {
+                entry.put("_wait", number(timing.get("receiveHeadersEnd")) - number(timing.get("sendEnd")));
+            }
+        });
+        devTools.addListener(event("Network.loadingFinished"), params -> {
+            Map<String, Object> entry = pending.remove((String) params.get("requestId"));
+            if (entry == null || !entry.containsKey("response")) {
+                return;
+            }
+            double time = (number(params.get("timestamp")) - number(entry.remove("_monotonicStart"))) * 1000;
+            double wait = Math.max(0, Math.min(time, number(entry.remove("_wait"))));
+            long bytes = (long) number(params.get("encodedDataLength"));
+            @SuppressWarnings("unchecked")
+            Map<String, Object> response = (Map<String, Object>) entry.get("response");
+            response.put("bodySize", bytes);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> content = (Map<String, Object>) response.get("content");
+            content.put("size", bytes);
+
+            Map<String, Object> timings = new LinkedHashMap<>();
+            timings.put("send", 0);
+            timings.put("wait", wait);
+            timings.put("receive", time - wait);
+            entry.put("time", time);
+            entry.put("cache", Collections.emptyMap());
+            entry.put("timings", timings);
+            entries.add(entry);
+        });
+        devTools.addListener(event("Network.loadingFailed"), params -> {
+            pending.remove((String) params.get("requestId"));
+            extraHeaders.remove((String) params.get("requestId"));
+        });
+    }
+
+    private static List<Map<String, Object>> headers(Map<?, ?> headers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        if (headers != null) {
+            for (Map.Entry<?, ?> header : headers.entrySet()) {
+                Map<String, Object> pair = new LinkedHashMap<>();
+                pair.put("name", header.getKey());
+                pair.put("value", header.getValue());
+                list.add(pair);
+            }
+        }
+        return list;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,204 @@
+package com.saucedemos.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Applies a NetworkProfile to a Chrome session over DevTools and counts what the session loaded and what it was spared.
+// Blocking by URL pattern (Network.setBlockedURLs) happens inside the browser; the resource-type allowlist uses
+// Fetch interception. Bytes saved are estimated per blocked URL: the size a session in this JVM loaded it at, or else
+// the Content-Length of a HEAD request sent once from the JVM (every session of a profile blocks the same URLs, so
+// none of them would ever load one).
+public class NetworkMonitor {
+    private static final Map<WebDriver, NetworkMonitor> MONITORS = Collections.synchronizedMap(new WeakHashMap<>());
+    // Size in bytes per URL, -1 when it can't be told
+    private static final Map<String, CompletableFuture<Long>> KNOWN_SIZES = new ConcurrentHashMap<>();
+    private static final HttpClient PROBE_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    // How long summary() waits for outstanding size probes
+    private static final long PROBE_WAIT_MILLIS = 2000;
+
+    private final NetworkProfile profile;
+    private final String allowedHost;
+    private final Map<String, String> requestUrls = new ConcurrentHashMap<>();
+    private final LongAdder requestsLoaded = new LongAdder();
+    private final LongAdder bytesLoaded = new LongAdder();
+    private final LongAdder requestsBlocked = new LongAdder();
+    private final Queue<CompletableFuture<Long>> blockedSizes = new ConcurrentLinkedQueue<>();
+
+    private NetworkMonitor(NetworkProfile profile, String baseUrl) {
+        this.profile = profile;
+        this.allowedHost = URI.create(baseUrl).getHost();
+    }
+
+    // Returns null when the browser has no DevTools support (e.g. Firefox); the session then runs unprofiled
+    public static NetworkMonitor attach(WebDriver driver, NetworkProfile profile, String baseUrl) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        NetworkMonitor monitor = new NetworkMonitor(profile, baseUrl);
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            monitor.install(devTools);
+        } catch (RuntimeException e) {
+            System.err.println("Network profile " + profile + " not applied: " + e.getMessage());
+            return null;
+        }
+        MONITORS.put(driver, monitor);
+        return monitor;
+    }
+
+    public static NetworkMonitor of(WebDriver driver) {
+        return driver == null ? null : MONITORS.get(driver);
+    }
+
+    public void reset() {
+        requestsLoaded.reset();
+        bytesLoaded.reset();
+        requestsBlocked.reset();
+        blockedSizes.clear();
+    }
+
+    public String summary() {
+        long saved = 0;
+        int unknown = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PROBE_WAIT_MILLIS);
+        for (CompletableFuture<Long> size : blockedSizes) {
+            long bytes = -1;
+            try {
+                bytes = size.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // Counted as unknown
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (bytes < 0) {
+                unknown++;
+            } else {
+                saved += bytes;
+            }
+        }
+        return String.format("Network profile %s: %d requests / %d KB loaded, %d requests blocked (~%d KB saved%s)",
+                profile, requestsLoaded.sum(), bytesLoaded.sum() / 1024, requestsBlocked.sum(), saved / 1024,
+                unknown == 0 ? "" : ", size unknown for " + unknown);
+    }
+
+    private void install(DevTools devTools) {
+        devTools.send(new Command<Void>("Network.enable", Collections.emptyMap()));
+
+        devTools.addListener(event("Network.requestWillBeSent"), params -> {
+            Map<?, ?> request = (Map<?, ?>) params.get("request");
+            requestUrls.put((String) params.get("requestId"), (String) request.get("url"));
+        });
+        devTools.addListener(event("Network.loadingFinished"), params -> {
+            String url = requestUrls.remove((String) params.get("requestId"));
+            long bytes = ((Number) params.get("encodedDataLength")).longValue();
+            requestsLoaded.increment();
+            bytesLoaded.add(bytes);
+            if (url != null) {
+                KNOWN_SIZES.put(url, CompletableFuture.completedFuture(bytes));
+            }
+        });
+        devTools.addListener(event("Network.loadingFailed"), params -> {
+            String url = requestUrls.remove((String) params.get("requestId"));
+            boolean blocked = params.get("blockedReason") != null
+                    || "net::ERR_BLOCKED_BY_CLIENT".equals(params.get("errorText"));
+            if (blocked) {
+                requestsBlocked.increment();
+                if (url != null) {
+                    blockedSizes.add(KNOWN_SIZES.computeIfAbsent(url, NetworkMonitor::probeSize));
+                }
+            }
+        });
+
+        if (!profile.getBlockedUrlPatterns().isEmpty()) {
+            devTools.send(new Command<Void>("Network.setBlockedURLs",
+                    Collections.singletonMap("urls", profile.getBlockedUrlPatterns())));
+        }
+
+        if (profile.isThrottled()) {
+            Map<String, Object> conditions = new HashMap<>();
+            conditions.put("offline", false);
+            conditions.put("latency", profile.getLatencyMs());
+            conditions.put("downloadThroughput", profile.getDownloadBytesPerSecond());
+            conditions.put("uploadThroughput", profile.getUploadBytesPerSecond());
+            devTools.send(new Command<Void>("Network.emulateNetworkConditions", conditions));
+        }
+
+        if (profile.usesAllowlist()) {
+            devTools.addListener(event("Fetch.requestPaused"), params -> {
+                Map<?, ?> request = (Map<?, ?>) params.get("request");
+                Map<String, Object> reply = new HashMap<>();
+                reply.put("requestId", params.get("requestId"));
+                if (isAllowed((String) request.get("url"), (String) params.get("resourceType"))) {
+                    devTools.send(new Command<Void>("Fetch.continueRequest", reply));
+                } else {
+                    reply.put("errorReason", "BlockedByClient");
+                    devTools.send(new Command<Void>("Fetch.failRequest", reply));
+                }
+            });
+            devTools.send(new Command<Void>("Fetch.enable",
+                    Collections.singletonMap("patterns", Collections.singletonList(
+                            Collections.singletonMap("urlPattern", "*")))));
+        }
+    }
+
+    // Off the DevTools event thread; the request never reached the network, so only its headers are fetched
+    private static CompletableFuture<Long> probeSize(String url) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            // data:, blob: and the like
+            return CompletableFuture.completedFuture(-1L);
+        }
+        return PROBE_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 400
+                        ? response.headers().firstValueAsLong("Content-Length").orElse(-1) : -1L)
+                .exceptionally(e -> -1L);
+    }
+
+    private boolean isAllowed(String url, String resourceType) {
+        if (url.startsWith("data:")) {
+            return true;
+        }
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return allowedHost.equalsIgnoreCase(host) && profile.getAllowedResourceTypes().contains(resourceType);
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
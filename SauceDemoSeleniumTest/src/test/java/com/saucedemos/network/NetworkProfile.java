@@ -0,0 +1,79 @@
+package com.saucedemos.network;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Named network profiles for Chrome sessions, selected with -Dnetwork.profile=full|minimal|throttled-3g
+public enum NetworkProfile {
+    // Everything loads as it would for a real user
+    FULL(Collections.emptyList(), Collections.emptySet(), false, 0, -1, -1),
+
+    // Only same-origin documents, scripts, styles and XHR/fetch calls; images, fonts and third parties are blocked
+    MINIMAL(Arrays.asList("*.png", "*.jpg", "*.jpeg", "*.gif", "*.svg", "*.webp", "*.ico",
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.mp4", "*.webm"),
+            new HashSet<>(Arrays.asList("Document", "Stylesheet", "Script", "XHR", "Fetch")),
+            true, 0, -1, -1),
+
+    // Everything loads, over a slow mobile connection
+    THROTTLED_3G(Collections.emptyList(), Collections.emptySet(), false, 300, 200 * 1024, 96 * 1024);
+
+    private final List<String> blockedUrlPatterns;
+    private final Set<String> allowedResourceTypes;
+    private final boolean allowlist;
+    private final long latencyMs;
+    private final long downloadBytesPerSecond;
+    private final long uploadBytesPerSecond;
+
+    NetworkProfile(List<String> blockedUrlPatterns, Set<String> allowedResourceTypes, boolean allowlist,
+                   long latencyMs, long downloadBytesPerSecond, long uploadBytesPerSecond) {
+        this.blockedUrlPatterns = blockedUrlPatterns;
+        this.allowedResourceTypes = allowedResourceTypes;
+        this.allowlist = allowlist;
+        this.latencyMs = latencyMs;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+    }
+
+    public static NetworkProfile fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return FULL;
+        }
+        for (NetworkProfile profile : values()) {
+            if (profile.name().replace('_', '-').equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Network profile not supported: " + name);
+    }
+
+    public List<String> getBlockedUrlPatterns() {
+        return blockedUrlPatterns;
+    }
+
+    public Set<String> getAllowedResourceTypes() {
+        return allowedResourceTypes;
+    }
+
+    public boolean usesAllowlist() {
+        return allowlist;
+    }
+
+    public boolean isThrottled() {
+        return latencyMs > 0 || downloadBytesPerSecond > 0 || uploadBytesPerSecond > 0;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getDownloadBytesPerSecond() {
+        return downloadBytesPerSecond;
+    }
+
+    public long getUploadBytesPerSecond() {
+        return uploadBytesPerSecond;
+    }
+}
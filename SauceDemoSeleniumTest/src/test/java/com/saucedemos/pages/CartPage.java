@@ -1,38 +1,44 @@
 package com.saucedemos.pages;
 
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.support.CachedElement;
+import com.saucedemos.waits.WaitPolicy;
+import org.openqa.selenium.By;
+import com.saucedemos.support.CachingFieldDecorator;
+import com.saucedemos.visual.VisualBaselines;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import java.util.List;
 
 public class CartPage {
     private WebDriver driver;
 
+    @CachedElement
     @FindBy(className = "title")
     private WebElement pageTitle;
 
     @FindBy(className = "cart_item")
     private List<WebElement> cartItems;
 
+    @CachedElement
     @FindBy(id = "checkout")
     private WebElement checkoutButton;
 
+    @CachedElement
     @FindBy(id = "continue-shopping")
     private WebElement continueShoppingButton;
 
     @FindBy(className = "cart_quantity")
     private List<WebElement> itemQuantities;
 
-    @FindBy(className = "inventory_item_name")
-    private List<WebElement> itemNames;
-
-    @FindBy(className = "inventory_item_price")
-    private List<WebElement> itemPrices;
+    private InventorySnapshot items;
 
     public CartPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.items = new InventorySnapshot(driver, ".cart_list", ".cart_item");
+        CachingFieldDecorator.initElements(driver, this);
     }
 
     public boolean isCartPageDisplayed() {
@@ -43,16 +49,23 @@ public class CartPage {
         return cartItems.size();
     }
 
+    // Every cart item read in a single script call; reused until the cart list changes
+    public List<InventoryItem> getCartItems() {
+        return items.items();
+    }
+
     public String getFirstItemName() {
-        if (!itemNames.isEmpty()) {
-            return itemNames.get(0).getText();
+        List<InventoryItem> cartItems = getCartItems();
+        if (!cartItems.isEmpty()) {
+            return cartItems.get(0).getName();
         }
         return "";
     }
 
     public String getFirstItemPrice() {
-        if (!itemPrices.isEmpty()) {
-            return itemPrices.get(0).getText();
+        List<InventoryItem> cartItems = getCartItems();
+        if (!cartItems.isEmpty()) {
+            return cartItems.get(0).getPrice();
         }
         return "";
     }
@@ -62,10 +75,19 @@ public class CartPage {
     }
 
     public ProductsPage continueShopping() {
+        PageLoads.Navigation navigation = PageLoads.start(driver, "inventory");
         continueShoppingButton.click();
+        new WaitPolicy(driver).until(ExpectedConditions.textToBe(By.className("title"), "Products"));
+        navigation.finish();
         return new ProductsPage(driver);
     }
 
+    // The cart badge is left out so the baseline holds whatever the cart contains
+    public void assertMatchesBaseline(String name) {
+        new WaitPolicy(driver).until(ExpectedConditions.textToBe(By.className("title"), "Your Cart"));
+        VisualBaselines.assertMatchesBaseline(driver, name, ".shopping_cart_badge");
+    }
+
     public boolean isCheckoutButtonDisplayed() {
         return checkoutButton.isDisplayed();
     }
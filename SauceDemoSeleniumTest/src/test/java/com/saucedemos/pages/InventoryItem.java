@@ -0,0 +1,76 @@
+package com.saucedemos.pages;
+
+import java.util.Map;
+import java.util.Objects;
+
+// Immutable view of one product row on the inventory or cart page
+public final class InventoryItem {
+    private final String name;
+    private final String price;
+    private final String description;
+    private final String buttonId;
+    private final boolean inCart;
+
+    public InventoryItem(String name, String price, String description, String buttonId, boolean inCart) {
+        this.name = name;
+        this.price = price;
+        this.description = description;
+        this.buttonId = buttonId;
+        this.inCart = inCart;
+    }
+
+    static InventoryItem fromScript(Map<?, ?> values) {
+        return new InventoryItem(
+                (String) values.get("name"),
+                (String) values.get("price"),
+                (String) values.get("description"),
+                (String) values.get("buttonId"),
+                Boolean.TRUE.equals(values.get("inCart")));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getButtonId() {
+        return buttonId;
+    }
+
+    public boolean isInCart() {
+        return inCart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InventoryItem)) {
+            return false;
+        }
+        InventoryItem that = (InventoryItem) o;
+        return inCart == that.inCart
+                && Objects.equals(name, that.name)
+                && Objects.equals(price, that.price)
+                && Objects.equals(description, that.description)
+                && Objects.equals(buttonId, that.buttonId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, price, description, buttonId, inCart);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + price + ")" + (inCart ? " [in cart]" : "");
+    }
+}
@@ -0,0 +1,65 @@
+package com.saucedemos.pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Reads every item row of a list in one script execution and keeps the result until the list changes.
+// A MutationObserver installed in the page bumps a version on every change; while the version matches,
+// the script returns nothing and the cached items are reused.
+class InventorySnapshot {
+    private static final String SNAPSHOT_SCRIPT =
+            "var listSelector = arguments[0], itemSelector = arguments[1], known = arguments[2];" +
+            "var states = window.__itemSnapshots = window.__itemSnapshots || {};" +
+            "var list = document.querySelector(listSelector);" +
+            "var state = states[listSelector];" +
+            "if (!state || state.list !== list) {" +
+            "  state = states[listSelector] = {epoch: Math.random().toString(36).slice(2), version: 0, list: list};" +
+            "  if (list) {" +
+            "    new MutationObserver(function () { state.version++; })" +
+            "      .observe(list, {childList: true, subtree: true, characterData: true, attributes: true});" +
+            "  }" +
+            "}" +
+            "var key = state.epoch + ':' + state.version;" +
+            "if (key === known) { return null; }" +
+            "var text = function (row, selector) { var el = row.querySelector(selector); return el ? el.textContent.trim() : ''; };" +
+            "var items = [];" +
+            "document.querySelectorAll(itemSelector).forEach(function (row) {" +
+            "  var button = row.querySelector('button');" +
+            "  var buttonId = button ? button.id : '';" +
+            "  items.push({name: text(row, '.inventory_item_name'), price: text(row, '.inventory_item_price')," +
+            "    description: text(row, '.inventory_item_desc'), buttonId: buttonId," +
+            "    inCart: buttonId.indexOf('remove-') === 0});" +
+            "});" +
+            "return {key: key, items: items};";
+
+    private final WebDriver driver;
+    private final String listSelector;
+    private final String itemSelector;
+    private String key;
+    private List<InventoryItem> items = Collections.emptyList();
+
+    InventorySnapshot(WebDriver driver, String listSelector, String itemSelector) {
+        this.driver = driver;
+        this.listSelector = listSelector;
+        this.itemSelector = itemSelector;
+    }
+
+    List<InventoryItem> items() {
+        Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, listSelector, itemSelector, key);
+        if (result != null) {
+            Map<?, ?> snapshot = (Map<?, ?>) result;
+            List<InventoryItem> fresh = new ArrayList<>();
+            for (Object values : (List<?>) snapshot.get("items")) {
+                fresh.add(InventoryItem.fromScript((Map<?, ?>) values));
+            }
+            items = Collections.unmodifiableList(fresh);
+            key = (String) snapshot.get("key");
+        }
+        return items;
+    }
+}
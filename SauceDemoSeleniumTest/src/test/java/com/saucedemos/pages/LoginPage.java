@@ -1,34 +1,45 @@
 package com.saucedemos.pages;
 
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.support.CachedElement;
+import com.saucedemos.support.CachingFieldDecorator;
+import com.saucedemos.waits.WaitPolicy;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 public class LoginPage {
     private WebDriver driver;
+    private WaitPolicy wait;
 
     // Page elements using @FindBy annotations
+    @CachedElement
     @FindBy(id = "user-name")
     private WebElement usernameField;
 
+    @CachedElement
     @FindBy(id = "password")
     private WebElement passwordField;
 
+    @CachedElement
     @FindBy(id = "login-button")
     private WebElement loginButton;
 
     @FindBy(css = "[data-test='error']")
     private WebElement errorMessage;
 
+    @CachedElement
     @FindBy(className = "login_logo")
     private WebElement loginLogo;
 
     // Constructor
     public LoginPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new WaitPolicy(driver);
+        CachingFieldDecorator.initElements(driver, this);
     }
 
     // Page actions
@@ -49,13 +60,25 @@ public class LoginPage {
     public ProductsPage login(String username, String password) {
         enterUsername(username);
         enterPassword(password);
+        PageLoads.Navigation navigation = PageLoads.start(driver, "inventory");
         clickLogin();
+        try {
+            // Either the inventory renders or the form shows an error; only a successful login is a page load
+            wait.until(ExpectedConditions.or(
+                    ExpectedConditions.textToBe(By.className("title"), "Products"),
+                    ExpectedConditions.presenceOfElementLocated(By.cssSelector("[data-test='error']"))));
+            if (driver.findElements(By.cssSelector("[data-test='error']")).isEmpty()) {
+                navigation.finish();
+            }
+        } catch (TimeoutException e) {
+            // Left to the caller's checks, as before
+        }
         return new ProductsPage(driver);
     }
 
     // Verification methods
     public boolean isLoginPageDisplayed() {
-        return loginLogo.isDisplayed() && usernameField.isDisplayed();
+        return wait.until(ExpectedConditions.visibilityOf(loginLogo)).isDisplayed() && usernameField.isDisplayed();
     }
 
     public String getErrorMessage() {
@@ -64,7 +87,7 @@ public class LoginPage {
 
     public boolean isErrorMessageDisplayed() {
         try {
-            return errorMessage.isDisplayed();
+            return wait.isDisplayed(By.cssSelector("[data-test='error']"));
         } catch (Exception e) {
             return false;
         }
@@ -1,31 +1,40 @@
 package com.saucedemos.pages;
 
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.support.CachedElement;
+import com.saucedemos.support.CachingFieldDecorator;
+import com.saucedemos.visual.VisualBaselines;
+import com.saucedemos.waits.EventWait;
+import com.saucedemos.waits.WaitPolicy;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import java.time.Duration;
 import java.util.List;
 
 public class ProductsPage {
     private WebDriver driver;
-    private WebDriverWait wait;
+    private WaitPolicy wait;
+    private EventWait events;
+    private InventorySnapshot inventory;
 
+    @CachedElement
     @FindBy(className = "title")
     private WebElement pageTitle;
 
     @FindBy(className = "inventory_item")
     private List<WebElement> products;
 
+    @CachedElement
     @FindBy(className = "shopping_cart_link")
     private WebElement cartLink;
 
+    @CachedElement
     @FindBy(css = ".product_sort_container")
     private WebElement sortDropdown;
 
+    @CachedElement
     @FindBy(id = "react-burger-menu-btn")
     private WebElement menuButton;
 
@@ -34,19 +43,27 @@ public class ProductsPage {
 
     public ProductsPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        this.wait = new WaitPolicy(driver);
+        this.events = new EventWait(driver, WaitPolicy.PRESENCE_BUDGET);
+        this.inventory = new InventorySnapshot(driver, ".inventory_list", ".inventory_item");
+        CachingFieldDecorator.initElements(driver, this);
     }
 
     public boolean isProductsPageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return pageTitle.getText().equals("Products");
+            // The title element is shared with the cart page, so wait for the text rather than the element
+            return wait.until(ExpectedConditions.textToBe(By.className("title"), "Products"));
         } catch (Exception e) {
             return false;
         }
     }
 
+    // The cart badge is left out so the baseline holds whatever the cart contains
+    public void assertMatchesBaseline(String name) {
+        wait.until(ExpectedConditions.visibilityOfAllElements(products));
+        VisualBaselines.assertMatchesBaseline(driver, name, ".shopping_cart_badge");
+    }
+
     public int getProductCount() {
         wait.until(ExpectedConditions.visibilityOfAllElements(products));
         return products.size();
@@ -65,28 +82,18 @@ public class ProductsPage {
         By addButtonLocator = By.id(addButtonId);
         WebElement addButton = wait.until(ExpectedConditions.elementToBeClickable(addButtonLocator));
 
-        // Scroll to button
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
-                "arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", addButton);
-
-        // Wait for scroll
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        // Scroll to button and wait until the scroll has settled
+        events.scrollIntoView(addButton);
 
         // Use JavaScript click (regular click doesn't work with SauceDemo)
         ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
                 "arguments[0].click();", addButton);
 
         // Wait for the button to change to remove button (confirms item was added)
-        By removeButtonLocator = By.id(removeButtonId);
-        wait.until(ExpectedConditions.presenceOfElementLocated(removeButtonLocator));
-        wait.until(ExpectedConditions.textToBe(removeButtonLocator, "Remove"));
+        events.untilText("#" + removeButtonId, "Remove");
 
         // Wait for cart badge to appear
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.className("shopping_cart_badge")));
+        events.untilPresent(".shopping_cart_badge");
     }
 
     public void addFirstProductToCart() {
@@ -99,37 +106,26 @@ public class ProductsPage {
         // Wait for the button to be present, visible, and clickable
         WebElement addButton = wait.until(ExpectedConditions.elementToBeClickable(addButtonLocator));
 
-        // Scroll to the button to ensure it's in view
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
-                "arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", addButton);
-
-        // Wait for scroll to complete
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        // Scroll to the button to ensure it's in view and wait for the scroll to complete
+        events.scrollIntoView(addButton);
 
         // Use JavaScript click (regular click doesn't work with SauceDemo)
         ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
                 "arguments[0].click();", addButton);
 
         // Wait for the remove button to appear
-        By removeButtonLocator = By.id("remove-sauce-labs-backpack");
-        wait.until(ExpectedConditions.presenceOfElementLocated(removeButtonLocator));
-        wait.until(ExpectedConditions.textToBe(removeButtonLocator, "Remove"));
+        events.untilText("#remove-sauce-labs-backpack", "Remove");
 
         // Wait for cart badge to appear
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.className("shopping_cart_badge")));
-        wait.until(ExpectedConditions.textToBe(By.className("shopping_cart_badge"), "1"));
+        events.untilText(".shopping_cart_badge", "1");
     }
 
     public String getCartBadgeText() {
         try {
-            WebElement badge = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.className("shopping_cart_badge"))
-            );
-            return badge.getText();
+            if (!isCartBadgeVisible()) {
+                return "0";
+            }
+            return driver.findElement(By.className("shopping_cart_badge")).getText();
         } catch (Exception e) {
             return "0";
         }
@@ -137,10 +133,10 @@ public class ProductsPage {
 
     public int getCartItemCount() {
         try {
-            WebElement badge = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.className("shopping_cart_badge"))
-            );
-            String badgeText = badge.getText().trim();
+            if (!isCartBadgeVisible()) {
+                return 0;
+            }
+            String badgeText = driver.findElement(By.className("shopping_cart_badge")).getText().trim();
             return Integer.parseInt(badgeText);
         } catch (Exception e) {
             return 0;
@@ -148,29 +144,39 @@ public class ProductsPage {
     }
 
     public boolean isCartBadgeVisible() {
-        try {
-            driver.findElement(By.className("shopping_cart_badge"));
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isPresent(By.className("shopping_cart_badge"));
+    }
+
+    public void assertCartBadgeAbsent() {
+        wait.assertAbsent(By.className("shopping_cart_badge"));
     }
 
     public CartPage goToCart() {
-        wait.until(ExpectedConditions.elementToBeClickable(cartLink)).click();
+        WebElement link = wait.until(ExpectedConditions.elementToBeClickable(cartLink));
+        PageLoads.Navigation navigation = PageLoads.start(driver, "cart");
+        link.click();
+        wait.until(ExpectedConditions.textToBe(By.className("title"), "Your Cart"));
+        navigation.finish();
         return new CartPage(driver);
     }
 
+    // Every inventory item read in a single script call; reused until the inventory list changes
+    public List<InventoryItem> getInventorySnapshot() {
+        return inventory.items();
+    }
+
     public String getProductName(int index) {
-        if (index < products.size()) {
-            return products.get(index).findElement(By.className("inventory_item_name")).getText();
+        List<InventoryItem> items = getInventorySnapshot();
+        if (index < items.size()) {
+            return items.get(index).getName();
         }
         return "";
     }
 
     public String getProductPrice(int index) {
-        if (index < products.size()) {
-            return products.get(index).findElement(By.className("inventory_item_price")).getText();
+        List<InventoryItem> items = getInventorySnapshot();
+        if (index < items.size()) {
+            return items.get(index).getPrice();
         }
         return "";
     }
@@ -189,11 +195,9 @@ public class ProductsPage {
             ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
                     "arguments[0].click();", menu);
 
-            // Wait for sidebar menu to appear
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.className("bm-menu")));
-
-            // Additional wait for animations to complete
-            Thread.sleep(1000);
+            // Wait for sidebar menu to appear and its slide-in transition to finish
+            events.untilPresent(".bm-menu");
+            events.untilAnimationsFinish(".bm-menu-wrap");
 
             // Step 2: Click logout link using JavaScript
             WebElement logout = wait.until(ExpectedConditions.presenceOfElementLocated(
@@ -209,9 +213,6 @@ public class ProductsPage {
             // Wait to return to login page (URL should change)
             wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("inventory")));
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted during logout process", e);
         } catch (Exception e) {
             throw new RuntimeException("Logout failed: " + e.getMessage(), e);
         }
@@ -229,9 +230,11 @@ public class ProductsPage {
             for (org.openqa.selenium.WebElement removeButton : removeButtons) {
                 try {
                     if (removeButton.isDisplayed() && removeButton.getText().equals("Remove")) {
+                        String addButtonId = removeButton.getDomAttribute("id").replaceFirst("^remove-", "add-to-cart-");
                         ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
                                 "arguments[0].click();", removeButton);
-                        Thread.sleep(500); // Brief wait between clicks
+                        // Wait until the button flips back to "Add to cart"
+                        events.untilPresent("#" + addButtonId);
                     }
                 } catch (Exception e) {
                     // Continue to next button if this one fails
@@ -250,7 +253,7 @@ public class ProductsPage {
         String removeButtonId = "remove-" + replace;
 
         try {
-            return driver.findElements(org.openqa.selenium.By.id(removeButtonId)).size() > 0;
+            return wait.isPresent(By.id(removeButtonId));
         } catch (Exception e) {
             return false;
         }
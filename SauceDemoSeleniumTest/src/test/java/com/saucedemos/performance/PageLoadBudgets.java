@@ -0,0 +1,46 @@
+package com.saucedemos.performance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Properties;
+
+// Page-load budgets from performance-budgets.properties on the test classpath, or the file named by -Dperf.budgets
+public final class PageLoadBudgets {
+    private static final String RESOURCE = "performance-budgets.properties";
+    private static final Properties BUDGETS = load();
+
+    private PageLoadBudgets() {
+    }
+
+    // metric is load, ttfb or fcp; null when the page has no budget for it
+    public static Duration budget(String page, String metric) {
+        String value = BUDGETS.getProperty(page + "." + metric);
+        return value == null || value.trim().isEmpty() ? null : Duration.ofMillis(Long.parseLong(value.trim()));
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        String file = System.getProperty("perf.budgets", "").trim();
+        try {
+            if (!file.isEmpty()) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            } else {
+                try (InputStream input = PageLoadBudgets.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+                    if (input != null) {
+                        properties.load(input);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read page-load budgets from " + (file.isEmpty() ? RESOURCE : file), e);
+        }
+        return properties;
+    }
+}
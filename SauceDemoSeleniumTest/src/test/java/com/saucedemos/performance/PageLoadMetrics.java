@@ -0,0 +1,101 @@
+package com.saucedemos.performance;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// One measured navigation. Times are milliseconds from the start of the navigation: for a document load they come
+// from Navigation Timing and Paint Timing, for a client-side route change (no new document) load is the time from
+// the action to the destination being ready, and the paint/TTFB values are not available (-1).
+// Browser metrics are the CDP Performance.getMetrics deltas over the navigation, when the browser has DevTools.
+public class PageLoadMetrics {
+    private final String page;
+    private final String url;
+    private final String test;
+    private final boolean documentLoad;
+    private final double loadMillis;
+    private final double ttfbMillis;
+    private final double domContentLoadedMillis;
+    private final double firstContentfulPaintMillis;
+    private final long resourceCount;
+    private final long transferBytes;
+    private final Map<String, Double> browserMetrics;
+
+    PageLoadMetrics(String page, String url, String test, boolean documentLoad, double loadMillis, double ttfbMillis,
+                    double domContentLoadedMillis, double firstContentfulPaintMillis, long resourceCount,
+                    long transferBytes, Map<String, Double> browserMetrics) {
+        this.page = page;
+        this.url = url;
+        this.test = test;
+        this.documentLoad = documentLoad;
+        this.loadMillis = loadMillis;
+        this.ttfbMillis = ttfbMillis;
+        this.domContentLoadedMillis = domContentLoadedMillis;
+        this.firstContentfulPaintMillis = firstContentfulPaintMillis;
+        this.resourceCount = resourceCount;
+        this.transferBytes = transferBytes;
+        this.browserMetrics = Collections.unmodifiableMap(new TreeMap<>(browserMetrics));
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTest() {
+        return test;
+    }
+
+    public boolean isDocumentLoad() {
+        return documentLoad;
+    }
+
+    public double getLoadMillis() {
+        return loadMillis;
+    }
+
+    public double getTtfbMillis() {
+        return ttfbMillis;
+    }
+
+    public double getDomContentLoadedMillis() {
+        return domContentLoadedMillis;
+    }
+
+    public double getFirstContentfulPaintMillis() {
+        return firstContentfulPaintMillis;
+    }
+
+    public long getResourceCount() {
+        return resourceCount;
+    }
+
+    public long getTransferBytes() {
+        return transferBytes;
+    }
+
+    // e.g. ScriptDuration, LayoutDuration, TaskDuration (ms), JSHeapUsedSize (bytes), Nodes
+    public Map<String, Double> getBrowserMetrics() {
+        return browserMetrics;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("%s (%s): load %.0f ms", page,
+                documentLoad ? "document load" : "route change", loadMillis));
+        if (documentLoad) {
+            text.append(String.format(", TTFB %.0f ms, DOMContentLoaded %.0f ms, FCP %s", ttfbMillis,
+                    domContentLoadedMillis, firstContentfulPaintMillis < 0 ? "n/a" : String.format("%.0f ms", firstContentfulPaintMillis)));
+        }
+        text.append(String.format(", %d resources / %d KB", resourceCount, transferBytes / 1024));
+        Double script = browserMetrics.get("ScriptDuration");
+        Double layout = browserMetrics.get("LayoutDuration");
+        if (script != null && layout != null) {
+            text.append(String.format(", script %.0f ms, layout %.0f ms", script, layout));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.saucedemos.performance;
+
+import com.saucedemos.performance.PageLoads.PageSummary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Page-load summaries across runs. Every run appends one line per page to perf.history (a CSV under target/ by
+// default, so CI has to keep it between builds to get a trend) and the report shows the most recent runs.
+public final class PageLoadTrend {
+    private static final String HEADER = "run,page,loads,load_p50_ms,load_p95_ms,fcp_p50_ms";
+    private static final int REPORTED_RUNS = 10;
+
+    private PageLoadTrend() {
+    }
+
+    public static Path historyFile() {
+        return Paths.get(System.getProperty("perf.history", "target/page-load-history.csv"));
+    }
+
+    // Appends this run; run is a label such as the suite and shard
+    public static void append(Path history, String run, Map<String, PageSummary> summaries) throws IOException {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        StringBuilder lines = new StringBuilder();
+        if (!Files.exists(history)) {
+            lines.append(HEADER).append('\n');
+        }
+        for (Map.Entry<String, PageSummary> page : summaries.entrySet()) {
+            PageSummary summary = page.getValue();
+            lines.append(String.format("%s %s,%s,%d,%.0f,%.0f,%.0f%n", timestamp, run.replace(",", " "), page.getKey(),
+                    summary.getCount(), summary.getLoadP50Millis(), summary.getLoadP95Millis(), summary.getFcpP50Millis()));
+        }
+        Path parent = history.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(history, lines.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Header plus the lines of the last runs, oldest first, ready for a report table
+    public static String[][] recentRuns(Path history) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        if (Files.exists(history)) {
+            for (String line : Files.readAllLines(history, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && !line.equals(HEADER)) {
+                    rows.add(line.split(",", -1));
+                }
+            }
+        }
+        Set<String> runs = new LinkedHashSet<>();
+        rows.forEach(row -> runs.add(row[0]));
+        List<String> recent = new ArrayList<>(runs).subList(Math.max(0, runs.size() - REPORTED_RUNS), runs.size());
+
+        List<String[]> table = new ArrayList<>();
+        table.add(new String[]{"Run", "Page", "Loads", "Load p50 (ms)", "Load p95 (ms)", "FCP p50 (ms)"});
+        for (String[] row : rows) {
+            if (recent.contains(row[0])) {
+                if (row[5].startsWith("-")) {
+                    row[5] = "n/a";
+                }
+                table.add(row);
+            }
+        }
+        return table.toArray(new String[0][]);
+    }
+}
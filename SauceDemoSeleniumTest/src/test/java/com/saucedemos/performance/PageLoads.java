@@ -0,0 +1,390 @@
+package com.saucedemos.performance;
+
+import com.saucedemos.driver.BrowserContext;
+import com.saucedemos.listeners.Status;
+import com.saucedemos.listeners.StreamingReporter;
+import com.saucedemos.metrics.BucketedHistogram;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Page-load measurements per page and per test. Wrap each navigation:
+//
+//   PageLoads.Navigation navigation = PageLoads.start(driver, "cart");
+//   cartLink.click();  ...wait for the cart...
+//   navigation.finish();
+//
+// A navigation that loaded a new document is measured with Navigation Timing and Paint Timing; a client-side
+// route change (the real saucedemo.com is a single-page app) from the start mark to the moment finish() is called.
+// Each measurement is kept only until the test's report node has it (endTest); the run keeps bucketed per-page
+// aggregates, so memory doesn't grow with the suite.
+public final class PageLoads {
+    // Browser-side Performance.getMetrics values reported as deltas over the navigation, converted to ms
+    private static final List<String> DURATION_METRICS = List.of(
+            "ScriptDuration", "LayoutDuration", "RecalcStyleDuration", "TaskDuration");
+    private static final List<String> GAUGE_METRICS = List.of("JSHeapUsedSize", "Nodes");
+
+    private static final String START_SCRIPT = "return [performance.timeOrigin, performance.now()];";
+    private static final String FINISH_SCRIPT =
+            "var sameDocument = arguments[0] === performance.timeOrigin;"
+            + "var from = sameDocument ? arguments[1] : 0;"
+            + "var resources = performance.getEntriesByType('resource').filter(function (r) { return r.startTime >= from; });"
+            + "var result = {sameDocument: sameDocument, now: performance.now(), url: location.href, resources: resources.length,"
+            + "  bytes: resources.reduce(function (sum, r) { return sum + (r.transferSize || 0); }, 0)};"
+            + "var navigation = performance.getEntriesByType('navigation')[0];"
+            + "if (!sameDocument && navigation) {"
+            + "  result.ttfb = navigation.responseStart;"
+            + "  result.domContentLoaded = navigation.domContentLoadedEventEnd;"
+            // Both are 0 until the load event has finished; finish() then falls back to the time it measured
+            + "  if (navigation.loadEventEnd > 0) { result.load = navigation.loadEventEnd; }"
+            + "  result.bytes += navigation.transferSize || 0;"
+            + "  performance.getEntriesByType('paint').forEach(function (p) {"
+            + "    if (p.name === 'first-contentful-paint') { result.fcp = p.startTime; }"
+            + "  });"
+            + "}"
+            + "return result;";
+
+    private static final Map<String, PageAggregate> BY_PAGE = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, PageLoadMetrics>> CURRENT_LOADS = ThreadLocal.withInitial(LinkedHashMap::new);
+    private static volatile boolean enabled = true;
+    // Budget overruns fail the test only in performance runs; functional runs report them on the test's node
+    private static final boolean ENFORCE = Boolean.getBoolean("perf.enforce");
+    private static final Set<WebDriver> PERFORMANCE_ENABLED = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private PageLoads() {
+    }
+
+    public static void startTest(String testName) {
+        CURRENT_TEST.set(testName);
+        CURRENT_LOADS.get().clear();
+    }
+
+    // The test's page loads are on its report node; its assertions have run
+    public static void endTest() {
+        CURRENT_TEST.remove();
+        CURRENT_LOADS.get().clear();
+    }
+
+    // Off for runs where the extra script and CDP calls per navigation would skew what is being timed
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static Navigation start(WebDriver driver, String page) {
+        return new Navigation(driver, page);
+    }
+
+    // The last load of the page during the current test, or null
+    public static PageLoadMetrics last(String page) {
+        return CURRENT_LOADS.get().get(page);
+    }
+
+    public static void assertPageLoadUnder(String page, Duration budget) {
+        PageLoadMetrics metrics = last(page);
+        if (metrics == null) {
+            budgetFailure("No load of page '" + page + "' was measured in this test");
+        } else if (metrics.getLoadMillis() > budget.toMillis()) {
+            budgetFailure(String.format("Page '%s' loaded in %.0f ms, budget is %d ms (%s)", page,
+                    metrics.getLoadMillis(), budget.toMillis(), metrics));
+        }
+    }
+
+    // Every budget performance-budgets.properties sets for the page
+    public static void assertWithinBudget(String page) {
+        PageLoadMetrics metrics = last(page);
+        if (metrics == null) {
+            budgetFailure("No load of page '" + page + "' was measured in this test");
+            return;
+        }
+        List<String> violations = violations(metrics);
+        if (!violations.isEmpty()) {
+            budgetFailure("Page '" + page + "' over budget: " + String.join("; ", violations) + " (" + metrics + ")");
+        }
+    }
+
+    private static void budgetFailure(String message) {
+        if (ENFORCE) {
+            throw new AssertionError(message);
+        }
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result != null) {
+            StreamingReporter.log(result, Status.INFO, "Not enforced (-Dperf.enforce=true to fail): " + message);
+        }
+        System.out.println("Page-load budget not enforced: " + message);
+    }
+
+    // Page loads of the test running on this thread, for its report node
+    public static String currentTestSummary() {
+        Map<String, PageLoadMetrics> loads = CURRENT_LOADS.get();
+        if (loads.isEmpty()) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder("<pre>Page loads\n");
+        for (PageLoadMetrics metrics : loads.values()) {
+            summary.append(metrics).append('\n');
+            for (String violation : violations(metrics)) {
+                summary.append("  OVER BUDGET: ").append(violation).append('\n');
+            }
+        }
+        return summary.append("</pre>").toString();
+    }
+
+    // p50/p95 load and FCP per page over the whole run
+    public static Map<String, PageSummary> summaries() {
+        Map<String, PageSummary> summaries = new TreeMap<>();
+        for (Map.Entry<String, PageAggregate> page : BY_PAGE.entrySet()) {
+            BucketedHistogram load = page.getValue().load;
+            BucketedHistogram fcp = page.getValue().fcp;
+            summaries.put(page.getKey(), new PageSummary((int) load.getCount(), millis(load.percentileNanos(50)),
+                    millis(load.percentileNanos(95)), fcp.getCount() == 0 ? -1 : millis(fcp.percentileNanos(50))));
+        }
+        return summaries;
+    }
+
+    // Per-page percentiles over the run; each measurement is on its test's report node
+    public static void export(Path directory) throws IOException {
+        if (BY_PAGE.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, PageAggregate> page : new TreeMap<>(BY_PAGE).entrySet()) {
+            PageAggregate aggregate = page.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("page", page.getKey());
+            row.put("loads", aggregate.load.getCount());
+            row.put("documentLoads", aggregate.documentLoads.sum());
+            row.put("loadP50Ms", millis(aggregate.load.percentileNanos(50)));
+            row.put("loadP95Ms", millis(aggregate.load.percentileNanos(95)));
+            row.put("loadMaxMs", millis(aggregate.load.getMaxNanos()));
+            row.put("ttfbP50Ms", percentileOrNone(aggregate.ttfb, 50));
+            row.put("fcpP50Ms", percentileOrNone(aggregate.fcp, 50));
+            row.put("fcpP95Ms", percentileOrNone(aggregate.fcp, 95));
+            row.put("overBudget", aggregate.overBudget.sum());
+            rows.add(row);
+        }
+        Files.createDirectories(directory);
+        try (Writer csv = Files.newBufferedWriter(directory.resolve("page-loads.csv"), StandardCharsets.UTF_8)) {
+            csv.write("page,loads,document_loads,load_p50_ms,load_p95_ms,load_max_ms,ttfb_p50_ms,fcp_p50_ms,fcp_p95_ms,"
+                    + "over_budget\n");
+            for (Map<String, Object> row : rows) {
+                csv.write(String.format("%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%d%n", row.get("page"), row.get("loads"),
+                        row.get("documentLoads"), row.get("loadP50Ms"), row.get("loadP95Ms"), row.get("loadMaxMs"),
+                        row.get("ttfbP50Ms"), row.get("fcpP50Ms"), row.get("fcpP95Ms"), row.get("overBudget")));
+            }
+        }
+        try (Writer json = Files.newBufferedWriter(directory.resolve("page-loads.json"), StandardCharsets.UTF_8)) {
+            json.write(new Json().toJson(rows));
+        }
+    }
+
+    private static double percentileOrNone(BucketedHistogram histogram, double p) {
+        return histogram.getCount() == 0 ? -1 : millis(histogram.percentileNanos(p));
+    }
+
+    static List<String> violations(PageLoadMetrics metrics) {
+        List<String> violations = new ArrayList<>();
+        check(violations, metrics.getPage(), "load", metrics.getLoadMillis());
+        if (metrics.isDocumentLoad()) {
+            check(violations, metrics.getPage(), "ttfb", metrics.getTtfbMillis());
+            check(violations, metrics.getPage(), "fcp", metrics.getFirstContentfulPaintMillis());
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, String page, String metric, double actualMillis) {
+        Duration budget = PageLoadBudgets.budget(page, metric);
+        if (budget != null && actualMillis > budget.toMillis()) {
+            violations.add(String.format("%s %.0f ms > %d ms", metric, actualMillis, budget.toMillis()));
+        }
+    }
+
+    private static void record(PageLoadMetrics metrics) {
+        PageAggregate aggregate = BY_PAGE.computeIfAbsent(metrics.getPage(), page -> new PageAggregate());
+        aggregate.load.record(nanos(metrics.getLoadMillis()));
+        if (metrics.isDocumentLoad()) {
+            aggregate.documentLoads.increment();
+        }
+        if (metrics.getTtfbMillis() >= 0) {
+            aggregate.ttfb.record(nanos(metrics.getTtfbMillis()));
+        }
+        if (metrics.getFirstContentfulPaintMillis() >= 0) {
+            aggregate.fcp.record(nanos(metrics.getFirstContentfulPaintMillis()));
+        }
+        if (!violations(metrics).isEmpty()) {
+            aggregate.overBudget.increment();
+        }
+        CURRENT_LOADS.get().put(metrics.getPage(), metrics);
+    }
+
+    private static long nanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double number(Map<?, ?> values, String key, double fallback) {
+        Object value = values.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : fallback;
+    }
+
+    // Current Performance.getMetrics values, or empty when DevTools can't see the page the driver is on
+    private static Map<String, Double> browserMetrics(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || BrowserContext.isActive(driver)) {
+            return Collections.emptyMap();
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            if (PERFORMANCE_ENABLED.add(driver)) {
+                devTools.send(new Command<Void>("Performance.enable", Collections.emptyMap()));
+            }
+            Map<String, Object> result = devTools.send(new Command<>("Performance.getMetrics", Collections.emptyMap(),
+                    input -> input.read(Json.MAP_TYPE)));
+            Map<String, Double> metrics = new HashMap<>();
+            for (Object metric : (List<?>) result.get("metrics")) {
+                Map<?, ?> entry = (Map<?, ?>) metric;
+                metrics.put((String) entry.get("name"), ((Number) entry.get("value")).doubleValue());
+            }
+            return metrics;
+        } catch (RuntimeException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    public static final class Navigation {
+        private final WebDriver driver;
+        private final String page;
+        private final boolean measured = enabled;
+        private final long startNanos = System.nanoTime();
+        private final Object timeOrigin;
+        private final double startMark;
+        private final Map<String, Double> browserBefore;
+
+        private Navigation(WebDriver driver, String page) {
+            this.driver = driver;
+            this.page = page;
+            this.browserBefore = measured ? browserMetrics(driver) : Collections.emptyMap();
+            Object origin = null;
+            double mark = 0;
+            if (measured) {
+                try {
+                    List<?> marks = (List<?>) ((JavascriptExecutor) driver).executeScript(START_SCRIPT);
+                    origin = marks.get(0);
+                    mark = ((Number) marks.get(1)).doubleValue();
+                } catch (WebDriverException | ClassCastException e) {
+                    // No document yet (e.g. a fresh session); whatever loads next is a new document
+                }
+            }
+            this.timeOrigin = origin;
+            this.startMark = mark;
+        }
+
+        // Call once the destination is ready; returns null when the page could not be measured
+        public PageLoadMetrics finish() {
+            if (!measured) {
+                return null;
+            }
+            Map<?, ?> timing;
+            try {
+                timing = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(FINISH_SCRIPT, timeOrigin, startMark);
+            } catch (WebDriverException e) {
+                return null;
+            }
+            boolean documentLoad = !Boolean.TRUE.equals(timing.get("sameDocument"));
+            double load = documentLoad
+                    ? number(timing, "load", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                    : number(timing, "now", 0) - startMark;
+
+            Map<String, Double> browserAfter = browserMetrics(driver);
+            Map<String, Double> browser = new HashMap<>();
+            for (String metric : DURATION_METRICS) {
+                Double after = browserAfter.get(metric);
+                if (after != null) {
+                    // Counters start over when a new document gets a new renderer
+                    double before = browserBefore.getOrDefault(metric, 0.0);
+                    browser.put(metric, (after >= before ? after - before : after) * 1000);
+                }
+            }
+            for (String metric : GAUGE_METRICS) {
+                if (browserAfter.containsKey(metric)) {
+                    browser.put(metric, browserAfter.get(metric));
+                }
+            }
+
+            PageLoadMetrics metrics = new PageLoadMetrics(page, String.valueOf(timing.get("url")), CURRENT_TEST.get(),
+                    documentLoad, load, number(timing, "ttfb", -1), number(timing, "domContentLoaded", -1),
+                    number(timing, "fcp", -1), (long) number(timing, "resources", 0), (long) number(timing, "bytes", 0),
+                    browser);
+            record(metrics);
+            return metrics;
+        }
+    }
+
+    private static final class PageAggregate {
+        private final BucketedHistogram load = new BucketedHistogram();
+        private final BucketedHistogram ttfb = new BucketedHistogram();
+        private final BucketedHistogram fcp = new BucketedHistogram();
+        private final LongAdder documentLoads = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+    }
+
+    public static final class PageSummary {
+        private final int count;
+        private final double loadP50Millis;
+        private final double loadP95Millis;
+        private final double fcpP50Millis;
+
+        PageSummary(int count, double loadP50Millis, double loadP95Millis, double fcpP50Millis) {
+            this.count = count;
+            this.loadP50Millis = loadP50Millis;
+            this.loadP95Millis = loadP95Millis;
+            this.fcpP50Millis = fcpP50Millis;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getLoadP50Millis() {
+            return loadP50Millis;
+        }
+
+        public double getLoadP95Millis() {
+            return loadP95Millis;
+        }
+
+        // -1 when the page was only reached through route changes
+        public double getFcpP50Millis() {
+            return fcpP50Millis;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.saucedemos.screenshots;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Screenshots stored under the SHA-256 of their content (test-output/screenshots/<hash>.png), so the same broken
+// page captured by many tests is written once and parallel tests or shards never overwrite each other's files.
+// The test thread only hashes the PNG; re-compressing and writing happen on a small background pool behind a
+// bounded queue. When the queue is full the test thread does the work itself instead of buffering more images.
+public final class ScreenshotStore {
+    public static final Path DIRECTORY = Paths.get("test-output", "screenshots");
+
+    private static final int QUEUE_CAPACITY = Integer.getInteger("screenshots.queueCapacity", 8);
+    private static final Set<String> STORED = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong CAPTURED = new AtomicLong();
+    private static final AtomicLong CAPTURED_BYTES = new AtomicLong();
+    private static final AtomicLong WRITTEN_BYTES = new AtomicLong();
+    // One party for awaitPending, plus one per write still in progress
+    private static final Phaser PENDING = new Phaser(1);
+    private static final ThreadPoolExecutor WRITERS = writers();
+
+    private ScreenshotStore() {
+    }
+
+    // Returns the hash the report refers to the image by; the file may still be being written
+    public static String store(byte[] png) {
+        String hash = sha256(png);
+        CAPTURED.incrementAndGet();
+        CAPTURED_BYTES.addAndGet(png.length);
+        if (STORED.add(hash)) {
+            PENDING.register();
+            WRITERS.execute(() -> {
+                try {
+                    write(hash, png);
+                } catch (IOException | RuntimeException e) {
+                    STORED.remove(hash);
+                    System.err.println("Could not store screenshot " + hash + ": " + e.getMessage());
+                } finally {
+                    PENDING.arriveAndDeregister();
+                }
+            });
+        }
+        return hash;
+    }
+
+    public static Path file(String hash) {
+        return DIRECTORY.resolve(hash + ".png");
+    }
+
+    // Blocks until every screenshot stored so far is on disk
+    public static void awaitPending() {
+        PENDING.arriveAndAwaitAdvance();
+    }
+
+    public static String summary() {
+        return String.format("Screenshots: %d captured, %d unique, %d KB captured, %d KB written", CAPTURED.get(),
+                STORED.size(), CAPTURED_BYTES.get() / 1024, WRITTEN_BYTES.get() / 1024);
+    }
+
+    private static void write(String hash, byte[] png) throws IOException {
+        Path file = file(hash);
+        // Left by an earlier run or another fork writing to the same workspace
+        if (Files.exists(file)) {
+            return;
+        }
+        byte[] compressed = compress(png);
+        Files.createDirectories(DIRECTORY);
+        Path temp = Files.createTempFile(DIRECTORY, hash, ".tmp");
+        try {
+            Files.write(temp, compressed);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        WRITTEN_BYTES.addAndGet(compressed.length);
+    }
+
+    // Browsers encode screenshots for speed; re-encoding at the highest deflate level usually makes them smaller.
+    // The pixels are unchanged, and the original is kept if it was smaller anyway.
+    private static byte[] compress(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+        if (image == null || !writers.hasNext()) {
+            return png;
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0f);
+            }
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.size() < png.length ? out.toByteArray() : png;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static ThreadPoolExecutor writers() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, QUEUE_CAPACITY)), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,54 @@
+package com.saucedemos.session;
+
+import com.saucedemos.pages.LoginPage;
+import com.saucedemos.pages.ProductsPage;
+import com.saucedemos.performance.PageLoads;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Logs a user in by injecting a cached session instead of filling in the login form.
+// The first request for a user goes through the UI once to capture the session; after that
+// setting up an authenticated test is a single navigation to the inventory page.
+public final class AuthenticatedSession {
+    private static final String INVENTORY_PATH = "/inventory.html";
+    private static final Map<String, SessionState> CACHE = new ConcurrentHashMap<>();
+
+    private AuthenticatedSession() {
+    }
+
+    public static ProductsPage loginAs(WebDriver driver, String baseUrl, String username, String password, boolean verify) {
+        SessionState state = CACHE.get(username);
+        if (state == null) {
+            ProductsPage productsPage = new LoginPage(driver).login(username, password);
+            if (!productsPage.isProductsPageDisplayed()) {
+                throw new IllegalStateException("UI login failed for user: " + username);
+            }
+            state = SessionState.capture(driver);
+            if (state.isEmpty()) {
+                throw new IllegalStateException("Login for " + username + " left no cookies or storage to cache");
+            }
+            CACHE.putIfAbsent(username, state);
+            return productsPage;
+        }
+
+        // The driver is on the login page of the same origin, so cookies and storage can be written directly
+        state.apply(driver);
+        PageLoads.Navigation navigation = PageLoads.start(driver, "inventory");
+        driver.get(baseUrl + INVENTORY_PATH);
+        navigation.finish();
+
+        ProductsPage productsPage = new ProductsPage(driver);
+        if (verify && !productsPage.isProductsPageDisplayed()) {
+            // The cached state is no longer accepted, forget it so the next fixture logs in through the UI
+            CACHE.remove(username);
+            throw new IllegalStateException("Injected session was rejected for user: " + username);
+        }
+        return productsPage;
+    }
+
+    public static void invalidate(String username) {
+        CACHE.remove(username);
+    }
+}
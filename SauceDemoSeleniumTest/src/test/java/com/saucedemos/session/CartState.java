@@ -0,0 +1,82 @@
+package com.saucedemos.session;
+
+import com.saucedemos.pages.CartPage;
+import com.saucedemos.performance.PageLoads;
+import com.saucedemos.waits.WaitPolicy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Seeds the cart straight into the application's localStorage, so a cart with any number of items
+// costs one script call and one navigation instead of a click-through per product
+public final class CartState {
+    private static final String CART_STORAGE_KEY = "cart-contents";
+    private static final String CART_PATH = "/cart.html";
+
+    // Product ids the application uses in its cart storage
+    private static final Map<String, Integer> PRODUCT_IDS = new HashMap<>();
+
+    static {
+        PRODUCT_IDS.put("Sauce Labs Backpack", 4);
+        PRODUCT_IDS.put("Sauce Labs Bike Light", 0);
+        PRODUCT_IDS.put("Sauce Labs Bolt T-Shirt", 1);
+        PRODUCT_IDS.put("Sauce Labs Fleece Jacket", 5);
+        PRODUCT_IDS.put("Sauce Labs Onesie", 2);
+        PRODUCT_IDS.put("Test.allTheThings() T-Shirt (Red)", 3);
+    }
+
+    private final List<String> productNames;
+
+    private CartState(List<String> productNames) {
+        for (String productName : productNames) {
+            if (!PRODUCT_IDS.containsKey(productName)) {
+                throw new IllegalArgumentException("Unknown product: " + productName);
+            }
+        }
+        this.productNames = Collections.unmodifiableList(new ArrayList<>(productNames));
+    }
+
+    public static CartState with(String... productNames) {
+        return new CartState(Arrays.asList(productNames));
+    }
+
+    public static CartState with(List<String> productNames) {
+        return new CartState(productNames);
+    }
+
+    public static List<String> allProducts() {
+        return new ArrayList<>(PRODUCT_IDS.keySet());
+    }
+
+    public List<String> getProductNames() {
+        return productNames;
+    }
+
+    // The driver must be on the application's origin; the page picks the cart up on its next render
+    public void seed(WebDriver driver) {
+        List<Integer> ids = new ArrayList<>();
+        for (String productName : productNames) {
+            ids.add(PRODUCT_IDS.get(productName));
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "window.localStorage.setItem(arguments[0], JSON.stringify(arguments[1]));",
+                CART_STORAGE_KEY, ids);
+    }
+
+    public CartPage open(WebDriver driver, String baseUrl) {
+        seed(driver);
+        PageLoads.Navigation navigation = PageLoads.start(driver, "cart");
+        driver.get(baseUrl + CART_PATH);
+        new WaitPolicy(driver).until(ExpectedConditions.textToBe(By.className("title"), "Your Cart"));
+        navigation.finish();
+        return new CartPage(driver);
+    }
+}
@@ -0,0 +1,60 @@
+package com.saucedemos.session;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cookies and localStorage of a logged-in user, captured once and replayed into later sessions
+public final class SessionState {
+    // Cart contents belong to the test, not to the login
+    private static final String CART_STORAGE_KEY = "cart-contents";
+
+    private final List<Cookie> cookies;
+    private final Map<String, String> localStorage;
+
+    private SessionState(List<Cookie> cookies, Map<String, String> localStorage) {
+        this.cookies = Collections.unmodifiableList(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SessionState capture(WebDriver driver) {
+        List<Cookie> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            // Drop domain and expiry so the cookie applies to whichever host we replay it on and never expires mid-suite
+            cookies.add(new Cookie.Builder(cookie.getName(), cookie.getValue()).path("/").build());
+        }
+
+        Map<String, String> storage = new HashMap<>((Map<String, String>) ((JavascriptExecutor) driver).executeScript(
+                "var items = {};" +
+                "for (var i = 0; i < window.localStorage.length; i++) {" +
+                "  var key = window.localStorage.key(i); items[key] = window.localStorage.getItem(key);" +
+                "}" +
+                "return items;"));
+        storage.remove(CART_STORAGE_KEY);
+        return new SessionState(cookies, storage);
+    }
+
+    // The driver must already be on the application's origin
+    public void apply(WebDriver driver) {
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        if (!localStorage.isEmpty()) {
+            ((JavascriptExecutor) driver).executeScript(
+                    "var items = arguments[0];" +
+                    "for (var key in items) { window.localStorage.setItem(key, items[key]); }",
+                    localStorage);
+        }
+    }
+
+    public boolean isEmpty() {
+        return cookies.isEmpty() && localStorage.isEmpty();
+    }
+}
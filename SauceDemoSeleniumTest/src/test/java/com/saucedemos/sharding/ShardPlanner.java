@@ -0,0 +1,133 @@
+package com.saucedemos.sharding;
+
+import com.saucedemos.listeners.ShardResultListener;
+import com.saucedemos.suites.SuiteFilter;
+import com.saucedemos.suites.SuiteFilter.SuiteMethod;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Splits the test methods of a TestNG suite into N shards of roughly equal expected duration and writes one
+// suite file per shard. Durations are averaged from earlier reports; tests without history count as the median.
+// Tests are placed longest first onto the currently lightest shard.
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.saucedemos.sharding.ShardPlanner -Dshard.count=4
+public final class ShardPlanner {
+    private static final long DEFAULT_TEST_MILLIS = 5000;
+
+    private ShardPlanner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int shardCount = Integer.getInteger("shard.count", 2);
+        Path baseSuite = Paths.get(System.getProperty("shard.baseSuite", "src/test/resources/testng.xml"));
+        Path outputDir = Paths.get(System.getProperty("shard.outputDir", "target/shards"));
+        List<Path> history = Arrays.stream(System.getProperty("shard.history",
+                        "target/surefire-reports," + ShardResultListener.REPORT_DIR).split(","))
+                .map(String::trim).filter(dir -> !dir.isEmpty()).map(Paths::get).collect(Collectors.toList());
+
+        List<Path> suites = plan(baseSuite, shardCount, history, outputDir);
+        String suiteList = suites.stream().map(Path::toString).collect(Collectors.joining(","));
+        Files.write(outputDir.resolve("suites.txt"), suiteList.getBytes(StandardCharsets.UTF_8));
+
+        System.out.println("Run every shard in its own JVM:");
+        System.out.println("  mvn test -DforkCount=" + shardCount + " -Dsurefire.suiteXmlFiles=" + suiteList);
+    }
+
+    public static List<Path> plan(Path baseSuite, int shardCount, List<Path> history, Path outputDir) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shard.count must be at least 1: " + shardCount);
+        }
+        XmlSuite base = SuiteFilter.parse(baseSuite);
+
+        List<PlannedTest> tests = SuiteFilter.discover(base).stream().map(PlannedTest::new).collect(Collectors.toList());
+        Set<String> keys = tests.stream().map(PlannedTest::key).collect(Collectors.toSet());
+        TestDurations durations = TestDurations.load(history, keys);
+        long unknown = durations.medianMillis(DEFAULT_TEST_MILLIS);
+        int withHistory = 0;
+        for (PlannedTest test : tests) {
+            Long millis = durations.averageMillis(test.key());
+            test.expectedMillis = millis != null ? millis : unknown;
+            withHistory += millis != null ? 1 : 0;
+        }
+
+        // Longest processing time first: biggest tests placed before the small ones fill the gaps
+        List<PlannedTest> ordered = new ArrayList<>(tests);
+        ordered.sort(Comparator.comparingLong((PlannedTest test) -> test.expectedMillis).reversed()
+                .thenComparing(PlannedTest::key));
+        long[] load = new long[shardCount];
+        List<List<PlannedTest>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (PlannedTest test : ordered) {
+            int lightest = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).add(test);
+            load[lightest] += test.expectedMillis;
+        }
+
+        Files.createDirectories(outputDir);
+        List<Path> written = new ArrayList<>();
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%d tests, %d with duration history (others estimated at %.1fs)%n",
+                tests.size(), withHistory, unknown / 1000.0));
+        for (int i = 0; i < shardCount; i++) {
+            String shardName = shardName(i + 1, shardCount);
+            Path file = outputDir.resolve(shardName + ".xml");
+            Files.write(file, toSuite(base, shardName, shards.get(i)).toXml().getBytes(StandardCharsets.UTF_8));
+            written.add(file);
+            summary.append(String.format("%s: %d tests, expected %.1fs%n", shardName, shards.get(i).size(), load[i] / 1000.0));
+        }
+        Files.write(outputDir.resolve("plan.txt"), summary.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.print(summary);
+        return written;
+    }
+
+    public static String shardName(int index, int count) {
+        return "shard-" + index + "-of-" + count;
+    }
+
+    // Same parameters, listeners and <test> layout as the base suite, narrowed to this shard's methods
+    private static XmlSuite toSuite(XmlSuite base, String shardName, List<PlannedTest> tests) {
+        XmlSuite suite = SuiteFilter.narrow(base, base.getName() + "-" + shardName,
+                tests.stream().map(test -> test.method).collect(Collectors.toList()));
+        Map<String, String> parameters = new LinkedHashMap<>(suite.getParameters());
+        parameters.put(ShardResultListener.SHARD_PARAMETER, shardName);
+        suite.setParameters(parameters);
+        Set<String> listeners = new LinkedHashSet<>(suite.getListeners());
+        listeners.add(ShardResultListener.class.getName());
+        suite.setListeners(new ArrayList<>(listeners));
+        return suite;
+    }
+
+    private static final class PlannedTest {
+        private final SuiteMethod method;
+        private long expectedMillis;
+
+        private PlannedTest(SuiteMethod method) {
+            this.method = method;
+        }
+
+        private String key() {
+            return TestDurations.key(method.getClassName(), method.getMethod());
+        }
+    }
+}
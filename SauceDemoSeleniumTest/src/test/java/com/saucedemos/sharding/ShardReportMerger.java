@@ -0,0 +1,127 @@
+package com.saucedemos.sharding;
+
+import com.saucedemos.listeners.HtmlReportRenderer;
+import com.saucedemos.listeners.StreamingReporter;
+import com.saucedemos.listeners.ShardResultListener;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Folds the per-shard results back into one JUnit report (target/shard-reports/TEST-merged.xml) and one
+// HTML report (test-output/TestReport_merged_<timestamp>.html). Run it once every shard has finished,
+// after collecting their target/shard-reports and test-output/shards folders into this module:
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.saucedemos.sharding.ShardReportMerger
+public final class ShardReportMerger {
+    private static final String MERGED_REPORT = "TEST-merged.xml";
+
+    private ShardReportMerger() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path reportDir = Paths.get(System.getProperty("shard.reportDir", ShardResultListener.REPORT_DIR));
+        Path archiveDir = Paths.get(System.getProperty("shard.archiveDir", StreamingReporter.SHARD_ARCHIVE_DIR));
+
+        List<Path> reports = list(reportDir, "TEST-shard-", ".xml");
+        if (reports.isEmpty()) {
+            throw new IllegalStateException("No shard reports found in " + reportDir);
+        }
+        Path merged = mergeJUnit(reports, reportDir.resolve(MERGED_REPORT));
+        System.out.println("Merged " + reports.size() + " shard reports into " + merged);
+
+        List<Path> logs = list(archiveDir, "shard-", StreamingReporter.LOG_SUFFIX);
+        if (!logs.isEmpty()) {
+            Path html = mergeReportLogs(logs);
+            System.out.println("Merged " + logs.size() + " report logs into " + html);
+        }
+    }
+
+    public static Path mergeJUnit(List<Path> reports, Path target) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        Document merged = builder.newDocument();
+        Element suite = merged.createElement("testsuite");
+        suite.setAttribute("name", "SauceDemoShards");
+        merged.appendChild(suite);
+
+        int tests = 0;
+        int failures = 0;
+        int errors = 0;
+        int skipped = 0;
+        double seconds = 0;
+        for (Path report : reports) {
+            Element shardSuite = builder.parse(report.toFile()).getDocumentElement();
+            tests += intAttribute(shardSuite, "tests");
+            failures += intAttribute(shardSuite, "failures");
+            errors += intAttribute(shardSuite, "errors");
+            skipped += intAttribute(shardSuite, "skipped");
+            // Shards run side by side, so the merged time is the slowest shard rather than the sum
+            seconds = Math.max(seconds, doubleAttribute(shardSuite, "time"));
+
+            NodeList testCases = shardSuite.getElementsByTagName("testcase");
+            for (int i = 0; i < testCases.getLength(); i++) {
+                suite.appendChild(merged.importNode(testCases.item(i), true));
+            }
+        }
+        suite.setAttribute("tests", Integer.toString(tests));
+        suite.setAttribute("failures", Integer.toString(failures));
+        suite.setAttribute("errors", Integer.toString(errors));
+        suite.setAttribute("skipped", Integer.toString(skipped));
+        suite.setAttribute("time", String.format(Locale.ROOT, "%.3f", seconds));
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+        return target;
+    }
+
+    public static Path mergeReportLogs(List<Path> logs) throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        Path html = Paths.get("test-output", "TestReport_merged_" + timestamp + ".html");
+        HtmlReportRenderer.render(logs, html, "Test Execution Report - " + logs.size() + " shards");
+        return html;
+    }
+
+    private static List<Path> list(Path directory, String prefix, String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static int intAttribute(Element element, String name) {
+        String value = element.getAttribute(name);
+        return value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+
+    private static double doubleAttribute(Element element, String name) {
+        String value = element.getAttribute(name);
+        return value.isEmpty() ? 0 : Double.parseDouble(value.replace(",", ""));
+    }
+}
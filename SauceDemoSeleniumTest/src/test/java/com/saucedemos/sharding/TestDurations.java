@@ -0,0 +1,144 @@
+package com.saucedemos.sharding;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Average duration per test method (class#method) from earlier JUnit-format reports, such as surefire's
+// TEST-*.xml and the per-shard reports. Configuration methods (setUp, tearDown) show up in those reports
+// as their own test cases; their time is spread over the test methods of the same class in the same file.
+public final class TestDurations {
+    private final Map<String, Long> averageMillis;
+
+    private TestDurations(Map<String, Long> averageMillis) {
+        this.averageMillis = averageMillis;
+    }
+
+    public static TestDurations load(List<Path> reportDirectories, Set<String> testMethods) throws IOException {
+        Map<String, List<Long>> observations = new HashMap<>();
+        for (Path directory : reportDirectories) {
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            List<Path> reports;
+            try (Stream<Path> files = Files.walk(directory)) {
+                reports = files.filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith("TEST-") && name.endsWith(".xml");
+                }).collect(Collectors.toList());
+            }
+            for (Path report : reports) {
+                readReport(report, testMethods, observations);
+            }
+        }
+
+        Map<String, Long> averages = new HashMap<>();
+        for (Map.Entry<String, List<Long>> entry : observations.entrySet()) {
+            long total = 0;
+            for (long millis : entry.getValue()) {
+                total += millis;
+            }
+            averages.put(entry.getKey(), total / entry.getValue().size());
+        }
+        return new TestDurations(averages);
+    }
+
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    public Long averageMillis(String testMethod) {
+        return averageMillis.get(testMethod);
+    }
+
+    public int size() {
+        return averageMillis.size();
+    }
+
+    // Median of the known durations, used for tests with no history yet
+    public long medianMillis(long fallback) {
+        if (averageMillis.isEmpty()) {
+            return fallback;
+        }
+        List<Long> sorted = new ArrayList<>(averageMillis.values());
+        sorted.sort(null);
+        long median = sorted.get(sorted.size() / 2);
+        return median > 0 ? median : fallback;
+    }
+
+    private static void readReport(Path report, Set<String> testMethods, Map<String, List<Long>> observations) {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            document = builder.parse(report.toFile());
+        } catch (Exception e) {
+            System.err.println("Skipping unreadable report " + report + ": " + e.getMessage());
+            return;
+        }
+
+        Map<String, Set<String>> testsByClass = new HashMap<>();
+        Map<String, Long> testMillis = new HashMap<>();
+        Map<String, Long> configMillisByClass = new HashMap<>();
+
+        NodeList testCases = document.getElementsByTagName("testcase");
+        for (int i = 0; i < testCases.getLength(); i++) {
+            Element testCase = (Element) testCases.item(i);
+            if (testCase.getElementsByTagName("skipped").getLength() > 0) {
+                // Skipped tests never ran, so their time says nothing about the next run
+                continue;
+            }
+            String className = testCase.getAttribute("classname");
+            String key = key(className, methodName(testCase.getAttribute("name")));
+            long millis = Math.round(parseSeconds(testCase.getAttribute("time")) * 1000);
+            if (testMethods.contains(key)) {
+                testsByClass.computeIfAbsent(className, c -> new HashSet<>()).add(key);
+                testMillis.merge(key, millis, Long::sum);
+            } else {
+                configMillisByClass.merge(className, millis, Long::sum);
+            }
+        }
+
+        for (Map.Entry<String, Set<String>> entry : testsByClass.entrySet()) {
+            long configShare = configMillisByClass.getOrDefault(entry.getKey(), 0L) / entry.getValue().size();
+            for (String key : entry.getValue()) {
+                observations.computeIfAbsent(key, k -> new ArrayList<>()).add(testMillis.get(key) + configShare);
+            }
+        }
+    }
+
+    // Surefire names parameterised invocations like "setUp[chrome, true](0)"
+    private static String methodName(String testCaseName) {
+        int end = testCaseName.length();
+        for (char delimiter : new char[]{'[', '(', ' '}) {
+            int index = testCaseName.indexOf(delimiter);
+            if (index >= 0) {
+                end = Math.min(end, index);
+            }
+        }
+        return testCaseName.substring(0, end);
+    }
+
+    private static double parseSeconds(String time) {
+        try {
+            return time.isEmpty() ? 0 : Double.parseDouble(time.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
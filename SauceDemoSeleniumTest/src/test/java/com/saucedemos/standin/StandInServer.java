@@ -0,0 +1,133 @@
+package com.saucedemos.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Embedded replica of the SauceDemo login, inventory and cart pages, served from src/test/resources/standin.
+// Every response can be delayed by a fixed latency to simulate a remote site deterministically.
+public class StandInServer {
+    private static final String RESOURCE_ROOT = "standin";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "js", "application/javascript; charset=utf-8",
+            "css", "text/css; charset=utf-8");
+
+    private static StandInServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final Map<String, byte[]> resources = new ConcurrentHashMap<>();
+
+    public StandInServer(int port, long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "standin-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    // One server per JVM, started on first use with -Dstandin.port and -Dstandin.latencyMs
+    public static synchronized StandInServer shared() {
+        if (shared == null) {
+            try {
+                StandInServer server = new StandInServer(Integer.getInteger("standin.port", 0),
+                        Long.getLong("standin.latencyMs", 0));
+                server.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                shared = server;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start the SauceDemo stand-in server", e);
+            }
+        }
+        return shared;
+    }
+
+    public static synchronized void stopShared() {
+        if (shared != null) {
+            shared.stop();
+            shared = null;
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMs);
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/")) {
+                path = "/index.html";
+            }
+
+            byte[] body = resource(path);
+            if (body == null) {
+                respond(exchange, 404, "text/plain; charset=utf-8", "Not found".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String extension = path.substring(path.lastIndexOf('.') + 1);
+            respond(exchange, 200, CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"), body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] resource(String path) throws IOException {
+        // Only plain file names under the resource root are served
+        if (path.contains("..") || path.lastIndexOf('/') != 0) {
+            return null;
+        }
+        byte[] cached = resources.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(RESOURCE_ROOT + path)) {
+            if (in == null) {
+                return null;
+            }
+            byte[] body = in.readAllBytes();
+            resources.put(path, body);
+            return body;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.saucedemos.suites;
+
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Lists the test methods a TestNG suite runs and writes narrowed copies of it, for the tools that run a
+// subset of testng.xml (ShardPlanner, TestImpactAnalyzer)
+public final class SuiteFilter {
+
+    private SuiteFilter() {
+    }
+
+    public static XmlSuite parse(Path suiteFile) throws IOException {
+        List<XmlSuite> parsed = new Parser(suiteFile.toString()).parseToList();
+        if (parsed.size() != 1) {
+            throw new IllegalArgumentException("Expected a single suite in " + suiteFile + " but found " + parsed.size());
+        }
+        return parsed.get(0);
+    }
+
+    // Every @Test method of every class in the suite, keeping the <test> it belongs to
+    public static List<SuiteMethod> discover(XmlSuite suite) {
+        List<SuiteMethod> tests = new ArrayList<>();
+        for (XmlTest xmlTest : suite.getTests()) {
+            for (XmlClass xmlClass : xmlTest.getClasses()) {
+                Set<String> included = xmlClass.getIncludedMethods().stream()
+                        .map(XmlInclude::getName).collect(Collectors.toSet());
+                Set<String> methods = new TreeSet<>();
+                for (Method method : loadClass(xmlClass.getName()).getMethods()) {
+                    if (method.isAnnotationPresent(Test.class)
+                            && (included.isEmpty() || included.contains(method.getName()))
+                            && !xmlClass.getExcludedMethods().contains(method.getName())) {
+                        methods.add(method.getName());
+                    }
+                }
+                for (String method : methods) {
+                    tests.add(new SuiteMethod(xmlTest, xmlClass.getName(), method));
+                }
+            }
+        }
+        return tests;
+    }
+
+    // Same parameters, listeners and <test> layout as the base suite, narrowed to the given methods
+    public static XmlSuite narrow(XmlSuite base, String name, Collection<SuiteMethod> tests) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(name);
+        suite.setParallel(base.getParallel());
+        suite.setThreadCount(base.getThreadCount());
+        suite.setDataProviderThreadCount(base.getDataProviderThreadCount());
+        suite.setParameters(new LinkedHashMap<>(base.getParameters()));
+        suite.setListeners(new ArrayList<>(base.getListeners()));
+
+        Map<XmlTest, Map<String, List<String>>> byTest = new LinkedHashMap<>();
+        for (XmlTest xmlTest : base.getTests()) {
+            byTest.put(xmlTest, new LinkedHashMap<>());
+        }
+        for (SuiteMethod test : tests) {
+            byTest.get(test.getXmlTest()).computeIfAbsent(test.getClassName(), c -> new ArrayList<>()).add(test.getMethod());
+        }
+
+        for (Map.Entry<XmlTest, Map<String, List<String>>> entry : byTest.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            XmlTest original = entry.getKey();
+            XmlTest xmlTest = new XmlTest(suite);
+            xmlTest.setName(original.getName());
+            xmlTest.setParameters(new LinkedHashMap<>(original.getLocalParameters()));
+            List<XmlClass> classes = new ArrayList<>();
+            for (Map.Entry<String, List<String>> classEntry : entry.getValue().entrySet()) {
+                XmlClass xmlClass = new XmlClass(classEntry.getKey(), false);
+                List<XmlInclude> includes = new ArrayList<>();
+                for (String method : new TreeSet<>(classEntry.getValue())) {
+                    includes.add(new XmlInclude(method));
+                }
+                xmlClass.setIncludedMethods(includes);
+                classes.add(xmlClass);
+            }
+            xmlTest.setXmlClasses(classes);
+        }
+        return suite;
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Test class not on the classpath: " + name, e);
+        }
+    }
+
+    public static final class SuiteMethod {
+        private final XmlTest xmlTest;
+        private final String className;
+        private final String method;
+
+        SuiteMethod(XmlTest xmlTest, String className, String method) {
+            this.xmlTest = xmlTest;
+            this.className = className;
+            this.method = method;
+        }
+
+        public XmlTest getXmlTest() {
+            return xmlTest;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        // className#method, the key test reports and duration history use
+        public String key() {
+            return className + "#" + method;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.saucedemos.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a @FindBy field whose element is resolved once and reused until it goes stale.
+// Only use it for elements that stay in the DOM for the lifetime of the page object.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CachedElement {
+}
@@ -0,0 +1,58 @@
+package com.saucedemos.support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+public class CachingElementLocator implements ElementLocator {
+    private final SearchContext searchContext;
+    private final By by;
+    private final boolean cacheable;
+    private final LocatorStats stats;
+    private WebElement cachedElement;
+
+    public CachingElementLocator(SearchContext searchContext, By by, boolean cacheable, LocatorStats stats) {
+        this.searchContext = searchContext;
+        this.by = by;
+        this.cacheable = cacheable;
+        this.stats = stats;
+    }
+
+    @Override
+    public WebElement findElement() {
+        if (cachedElement != null) {
+            stats.hit();
+            return cachedElement;
+        }
+        stats.miss();
+        WebElement element = searchContext.findElement(by);
+        if (cacheable) {
+            cachedElement = element;
+        }
+        return element;
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        stats.miss();
+        return searchContext.findElements(by);
+    }
+
+    boolean isCacheable() {
+        return cacheable;
+    }
+
+    // Called when the cached element went stale; the next lookup goes back to the browser
+    void invalidate() {
+        cachedElement = null;
+        stats.staleRetry();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " '" + by + "'";
+    }
+}
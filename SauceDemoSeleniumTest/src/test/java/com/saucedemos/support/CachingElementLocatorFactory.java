@@ -0,0 +1,24 @@
+package com.saucedemos.support;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+    private final SearchContext searchContext;
+    private final LocatorStats stats;
+
+    public CachingElementLocatorFactory(SearchContext searchContext, Class<?> pageClass) {
+        this.searchContext = searchContext;
+        this.stats = LocatorStats.forPage(pageClass);
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachingElementLocator(searchContext, new Annotations(field).buildBy(),
+                field.isAnnotationPresent(CachedElement.class), stats);
+    }
+}
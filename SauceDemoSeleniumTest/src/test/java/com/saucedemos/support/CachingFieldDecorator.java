@@ -0,0 +1,81 @@
+package com.saucedemos.support;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// PageFactory decorator for @CachedElement fields: the proxy reuses the cached element and only
+// re-resolves it when a call on it throws StaleElementReferenceException
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+
+    public CachingFieldDecorator(CachingElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    public static void initElements(SearchContext searchContext, Object page) {
+        PageFactory.initElements(
+                new CachingFieldDecorator(new CachingElementLocatorFactory(searchContext, page.getClass())), page);
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        if (!(locator instanceof CachingElementLocator) || !((CachingElementLocator) locator).isCacheable()) {
+            return super.proxyForLocator(loader, locator);
+        }
+        InvocationHandler handler = new StaleRetryingHandler((CachingElementLocator) locator);
+        return (WebElement) Proxy.newProxyInstance(
+                loader, new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class}, handler);
+    }
+
+    private static class StaleRetryingHandler implements InvocationHandler {
+        private final CachingElementLocator locator;
+
+        StaleRetryingHandler(CachingElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            WebElement element;
+            try {
+                element = locator.findElement();
+            } catch (NoSuchElementException e) {
+                if ("toString".equals(method.getName())) {
+                    return "Proxy element for: " + locator;
+                }
+                throw e;
+            }
+
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+            }
+
+            // The page re-rendered the element: resolve it again once and retry the call
+            locator.invalidate();
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.saucedemos.support;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Element lookup counters per page object class: hits are served from the cache, misses go to the browser
+public final class LocatorStats {
+    private static final Map<String, LocatorStats> BY_PAGE = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleRetries = new LongAdder();
+
+    private LocatorStats() {
+    }
+
+    public static LocatorStats forPage(Class<?> pageClass) {
+        return BY_PAGE.computeIfAbsent(pageClass.getSimpleName(), name -> new LocatorStats());
+    }
+
+    public static Map<String, LocatorStats> all() {
+        return new TreeMap<>(BY_PAGE);
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void staleRetry() {
+        staleRetries.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStaleRetries() {
+        return staleRetries.sum();
+    }
+
+    @Override
+    public String toString() {
+        long lookups = getHits() + getMisses();
+        double saved = lookups == 0 ? 0 : 100.0 * getHits() / lookups;
+        return String.format("%d lookups, %d cache hits, %d browser lookups, %d stale re-resolves (%.1f%% of lookups saved)",
+                lookups, getHits(), getMisses(), getStaleRetries(), saved);
+    }
+}
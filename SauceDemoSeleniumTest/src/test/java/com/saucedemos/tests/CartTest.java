@@ -2,43 +2,43 @@ package com.saucedemos.tests;
 
 import com.saucedemos.base.BaseTest;
 import com.saucedemos.pages.CartPage;
-import com.saucedemos.pages.LoginPage;
 import com.saucedemos.pages.ProductsPage;
+import com.saucedemos.session.CartState;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+
 public class CartTest extends BaseTest {
-    private ProductsPage productsPage;
-    private CartPage cartPage;
+    // Page object is per thread so methods of this class can run in parallel workers
+    private final ThreadLocal<CartPage> cartPage = new ThreadLocal<>();
 
     @BeforeMethod
     public void loginAndAddProduct() {
-        LoginPage loginPage = new LoginPage(getDriver());
-        productsPage = loginPage.login("standard_user", "secret_sauce");
+        loginViaSession("standard_user", "secret_sauce");
 
-        // Add a product to cart before each test
-        productsPage.addFirstProductToCart();
-        cartPage = productsPage.goToCart();
+        // Seed a product into the cart before each test
+        cartPage.set(openCartWith(CartState.with("Sauce Labs Backpack")));
     }
 
     @Test(priority = 1)
     public void testCartPageLoad() {
         // Verify cart page loads correctly
-        Assert.assertTrue(cartPage.isCartPageDisplayed(), "Cart page should be displayed");
+        Assert.assertTrue(cartPage.get().isCartPageDisplayed(), "Cart page should be displayed");
     }
 
     @Test(priority = 2)
     public void testCartHasItems() {
         // Verify cart contains the added item
-        Assert.assertEquals(cartPage.getCartItemsCount(), 1, "Cart should contain 1 item");
+        Assert.assertEquals(cartPage.get().getCartItemsCount(), 1, "Cart should contain 1 item");
     }
 
     @Test(priority = 3)
     public void testCartItemDetails() {
         // Verify cart item details
-        String itemName = cartPage.getFirstItemName();
-        String itemPrice = cartPage.getFirstItemPrice();
+        String itemName = cartPage.get().getFirstItemName();
+        String itemPrice = cartPage.get().getFirstItemPrice();
 
         Assert.assertFalse(itemName.isEmpty(), "Item name should not be empty");
         Assert.assertFalse(itemPrice.isEmpty(), "Item price should not be empty");
@@ -48,15 +48,39 @@ public class CartTest extends BaseTest {
     @Test(priority = 4)
     public void testCheckoutButton() {
         // Verify checkout button is displayed and clickable
-        Assert.assertTrue(cartPage.isCheckoutButtonDisplayed(), "Checkout button should be displayed");
+        Assert.assertTrue(cartPage.get().isCheckoutButtonDisplayed(), "Checkout button should be displayed");
     }
 
     @Test(priority = 5)
     public void testContinueShoppingButton() {
         // Verify continue shopping button works
-        Assert.assertTrue(cartPage.isContinueShoppingButtonDisplayed(), "Continue shopping button should be displayed");
+        Assert.assertTrue(cartPage.get().isContinueShoppingButtonDisplayed(), "Continue shopping button should be displayed");
 
-        ProductsPage returnedProductsPage = cartPage.continueShopping();
+        ProductsPage returnedProductsPage = cartPage.get().continueShopping();
         Assert.assertTrue(returnedProductsPage.isProductsPageDisplayed(), "Should return to products page");
     }
+
+    @Test(priority = 6)
+    public void testCartWithAllProducts() {
+        // Verify a cart seeded with the whole catalogue lists every product
+        CartPage fullCart = openCartWith(CartState.with(CartState.allProducts()));
+
+        Assert.assertEquals(fullCart.getCartItemsCount(), CartState.allProducts().size(),
+                "Cart should contain every product");
+    }
+
+    @Test(priority = 7)
+    public void testCartPageLoadWithinBudget() {
+        // Opening the seeded cart measured the cart load; navigating back measures the inventory route change
+        assertPageLoadWithinBudget("cart");
+
+        cartPage.get().continueShopping();
+        assertPageLoadUnder("inventory", Duration.ofSeconds(3));
+    }
+
+    @Test(priority = 8)
+    public void testCartMatchesBaseline() {
+        // Pixel comparison of the cart with one product against its stored baseline
+        cartPage.get().assertMatchesBaseline("cart");
+    }
 }
\ No newline at end of file
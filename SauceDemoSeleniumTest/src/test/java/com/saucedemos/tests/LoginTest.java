@@ -1,9 +1,11 @@
 package com.saucedemos.tests;
 
 import com.saucedemos.base.BaseTest;
+import com.saucedemos.base.InBrowserContext;
 import com.saucedemos.pages.LoginPage;
 import com.saucedemos.pages.ProductsPage;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 public class LoginTest extends BaseTest {
@@ -22,6 +24,7 @@ public class LoginTest extends BaseTest {
         Assert.assertTrue(productsPage.isProductsPageDisplayed(), "Products page should be displayed after login");
     }
 
+    @InBrowserContext
     @Test(priority = 2)
     public void testInvalidLogin() {
         LoginPage loginPage = new LoginPage(getDriver());
@@ -35,6 +38,7 @@ public class LoginTest extends BaseTest {
                 "Error message should contain login failure text");
     }
 
+    @InBrowserContext
     @Test(priority = 3)
     public void testEmptyUsernameLogin() {
         LoginPage loginPage = new LoginPage(getDriver());
@@ -49,6 +53,7 @@ public class LoginTest extends BaseTest {
                 "Error message should indicate username is required");
     }
 
+    @InBrowserContext
     @Test(priority = 4)
     public void testEmptyPasswordLogin() {
         LoginPage loginPage = new LoginPage(getDriver());
@@ -63,6 +68,7 @@ public class LoginTest extends BaseTest {
                 "Error message should indicate password is required");
     }
 
+    @InBrowserContext
     @Test(priority = 5)
     public void testLockedUserLogin() {
         LoginPage loginPage = new LoginPage(getDriver());
@@ -75,4 +81,29 @@ public class LoginTest extends BaseTest {
         Assert.assertTrue(loginPage.getErrorMessage().contains("locked out"),
                 "Error message should indicate user is locked out");
     }
-}
\ No newline at end of file
+
+    @DataProvider(name = "rejectedLogins", parallel = true)
+    public Object[][] rejectedLogins() {
+        return new Object[][]{
+                {"invalid_user", "invalid_password", "Username and password do not match"},
+                {"", "secret_sauce", "Username is required"},
+                {"standard_user", "", "Password is required"},
+                {"locked_out_user", "secret_sauce", "locked out"}
+        };
+    }
+
+    // The negative scenarios above side by side, each in its own context of the one shared browser
+    @InBrowserContext
+    @Test(priority = 6, dataProvider = "rejectedLogins")
+    public void testRejectedLoginConcurrently(String username, String password, String expectedError) {
+        LoginPage loginPage = new LoginPage(getDriver());
+
+        // Attempt login with the scenario's credentials
+        loginPage.login(username, password);
+
+        // Verify error message
+        Assert.assertTrue(loginPage.isErrorMessageDisplayed(), "Error message should be displayed");
+        Assert.assertTrue(loginPage.getErrorMessage().contains(expectedError),
+                "Error message should contain: " + expectedError);
+    }
+}
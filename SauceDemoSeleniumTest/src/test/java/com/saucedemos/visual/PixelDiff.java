@@ -0,0 +1,52 @@
+package com.saucedemos.visual;
+
+import java.util.Arrays;
+
+// The diff kernel: counts pixels of a run that differ by more than a per-channel tolerance. Identical stretches,
+// which are nearly all of a regression screenshot, are skipped with Arrays.mismatch, which the JIT compiles to
+// vectorized compares; only the pixels it stops at are unpacked channel by channel. (The Vector API would need
+// jdk.incubator.vector, which this Java 11 module can't compile against.)
+public final class PixelDiff {
+    private PixelDiff() {
+    }
+
+    // Pixels in [from, to) of a that differ from the same pixels of b
+    public static int countDifferent(int[] a, int[] b, int from, int to, int tolerance) {
+        int count = 0;
+        int i = from;
+        while (i < to) {
+            int mismatch = Arrays.mismatch(a, i, to, b, i, to);
+            if (mismatch < 0) {
+                break;
+            }
+            i += mismatch;
+            if (differs(a[i], b[i], tolerance)) {
+                count++;
+            }
+            i++;
+        }
+        return count;
+    }
+
+    // Plain loop over every pixel, kept as the baseline the benchmark compares countDifferent with
+    public static int countDifferentScalar(int[] a, int[] b, int from, int to, int tolerance) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (a[i] != b[i] && differs(a[i], b[i], tolerance)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Anti-aliasing and colour rounding move channels by a few levels; anything beyond the tolerance is a change
+    public static boolean differs(int p, int q, int tolerance) {
+        if (p == q) {
+            return false;
+        }
+        return Math.abs((p >>> 24) - (q >>> 24)) > tolerance
+                || Math.abs((p >>> 16 & 0xff) - (q >>> 16 & 0xff)) > tolerance
+                || Math.abs((p >>> 8 & 0xff) - (q >>> 8 & 0xff)) > tolerance
+                || Math.abs((p & 0xff) - (q & 0xff)) > tolerance;
+    }
+}
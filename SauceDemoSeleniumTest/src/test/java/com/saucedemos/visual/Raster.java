@@ -0,0 +1,99 @@
+package com.saucedemos.visual;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// An image as packed ARGB ints, row-major, width * height of them. Comparisons work on this array directly;
+// BufferedImage is only used to decode and encode PNGs.
+public final class Raster {
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+
+    public Raster(int width, int height, int[] pixels) {
+        if (pixels.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " pixels, got " + pixels.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    public static Raster fromPng(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Not a readable image");
+        }
+        return of(image);
+    }
+
+    public static Raster read(Path file) throws IOException {
+        return fromPng(Files.readAllBytes(file));
+    }
+
+    // Browser screenshots decode to byte-interleaved rasters; those are packed without going through getRGB's
+    // per-pixel colour model calls
+    static Raster of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = new int[width * height];
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_INT_RGB: {
+                int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                boolean opaque = image.getType() == BufferedImage.TYPE_INT_RGB;
+                for (int i = 0; i < pixels.length; i++) {
+                    pixels[i] = opaque ? data[i] | 0xff000000 : data[i];
+                }
+                break;
+            }
+            case BufferedImage.TYPE_3BYTE_BGR: {
+                byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+                for (int i = 0, j = 0; i < pixels.length; i++, j += 3) {
+                    pixels[i] = 0xff000000 | (data[j + 2] & 0xff) << 16 | (data[j + 1] & 0xff) << 8 | (data[j] & 0xff);
+                }
+                break;
+            }
+            case BufferedImage.TYPE_4BYTE_ABGR: {
+                byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+                for (int i = 0, j = 0; i < pixels.length; i++, j += 4) {
+                    pixels[i] = (data[j] & 0xff) << 24 | (data[j + 3] & 0xff) << 16 | (data[j + 2] & 0xff) << 8
+                            | (data[j + 1] & 0xff);
+                }
+                break;
+            }
+            default:
+                image.getRGB(0, 0, width, height, pixels, 0, width);
+        }
+        return new Raster(width, height, pixels);
+    }
+
+    public byte[] toPng() throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        System.arraycopy(pixels, 0, data, 0, pixels.length);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return png.toByteArray();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // The backing array, not a copy
+    public int[] pixels() {
+        return pixels;
+    }
+}
@@ -0,0 +1,156 @@
+package com.saucedemos.visual;
+
+import com.saucedemos.listeners.StreamingReporter;
+import com.saucedemos.screenshots.ScreenshotStore;
+import com.saucedemos.waits.WaitPolicy;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.SkipException;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Viewport screenshots checked against stored baselines, one per page name, browser and screenshot size
+// (<visual.baselineDir>/<name>_<browser>_<width>x<height>.png). The viewport is pinned to visual.viewport for the
+// screenshot, whatever the machine's screen, and put back afterwards. A missing baseline skips the check; only
+// -Dvisual.update=true records baselines. On a mismatch the actual image and a diff go to the screenshot store
+// and the diff is attached to the test's report node.
+public final class VisualBaselines {
+    private static final Path BASELINE_DIR = Paths.get(System.getProperty("visual.baselineDir",
+            "src/test/resources/visual-baselines"));
+    private static final boolean UPDATE = Boolean.getBoolean("visual.update");
+    private static final Dimension VIEWPORT = viewport(System.getProperty("visual.viewport", "1280x800"));
+    private static final int MAX_DIFF_PIXELS = Integer.getInteger("visual.maxDiffPixels", 50);
+    private static final VisualComparator COMPARATOR = new VisualComparator(
+            Integer.getInteger("visual.channelTolerance", 8), MAX_DIFF_PIXELS);
+
+    // Bounding boxes of the matching elements in device pixels, relative to the viewport the screenshot shows
+    private static final String IGNORED_REGIONS_SCRIPT = "var ratio = window.devicePixelRatio || 1, rects = [];"
+            + "arguments[0].forEach(function (selector) {"
+            + "  document.querySelectorAll(selector).forEach(function (element) {"
+            + "    var r = element.getBoundingClientRect();"
+            + "    if (r.width > 0 && r.height > 0) rects.push([r.left * ratio, r.top * ratio, r.right * ratio, r.bottom * ratio]);"
+            + "  });"
+            + "});"
+            + "return rects;";
+    private static final String IMAGES_LOADED_SCRIPT = "return document.readyState === 'complete'"
+            + " && Array.prototype.every.call(document.images, function (image) { return image.complete; });";
+
+    private VisualBaselines() {
+    }
+
+    public static void assertMatchesBaseline(WebDriver driver, String name, String... ignoredSelectors) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        WebDriver.Window window = driver.manage().window();
+        Dimension windowSize = window.getSize();
+        Point windowPosition = window.getPosition();
+        List<Rectangle> ignored;
+        byte[] png;
+        try {
+            pinViewport(driver, js);
+            // After the resize, which can reflow the page and load other images
+            new WaitPolicy(driver).until(d -> Boolean.TRUE.equals(js.executeScript(IMAGES_LOADED_SCRIPT)));
+            ignored = ignoredRegions(js, ignoredSelectors);
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } finally {
+            window.setPosition(windowPosition);
+            window.setSize(windowSize);
+        }
+
+        try {
+            Raster actual = Raster.fromPng(png);
+            Path baselineFile = BASELINE_DIR.resolve(name + "_" + browserName(driver) + "_" + actual.getWidth() + "x"
+                    + actual.getHeight() + ".png");
+            if (UPDATE) {
+                Files.createDirectories(BASELINE_DIR);
+                Files.write(baselineFile, png);
+                System.out.println("Recorded visual baseline " + baselineFile);
+                return;
+            }
+            if (!Files.exists(baselineFile)) {
+                throw new SkipException("No visual baseline " + baselineFile + "; record it with -Dvisual.update=true");
+            }
+
+            Raster baseline = Raster.read(baselineFile);
+            VisualComparator.Comparison comparison = COMPARATOR.compare(baseline, actual, ignored);
+            if (comparison.getDifferentPixels() <= MAX_DIFF_PIXELS) {
+                return;
+            }
+            // Rare path: count every difference and keep the evidence
+            comparison = COMPARATOR.compareFully(baseline, actual, ignored);
+            String actualHash = ScreenshotStore.store(png);
+            String diffHash = ScreenshotStore.store(COMPARATOR.diffImage(baseline, actual, ignored).toPng());
+            ITestResult result = Reporter.getCurrentTestResult();
+            if (result != null) {
+                StreamingReporter.addScreenCapture(result, diffHash);
+            }
+            throw new AssertionError("Page '" + name + "' differs from " + baselineFile + ": " + comparison
+                    + " (actual " + ScreenshotStore.file(actualHash) + ", diff " + ScreenshotStore.file(diffHash) + ")");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compare page '" + name + "' with its baseline", e);
+        }
+    }
+
+    // Window size is the viewport plus the browser's own frame, which differs between browsers and headless
+    // mode, so the frame is measured and added on
+    private static void pinViewport(WebDriver driver, JavascriptExecutor js) {
+        WebDriver.Window window = driver.manage().window();
+        window.setSize(VIEWPORT);
+        List<?> inner = (List<?>) js.executeScript("return [window.innerWidth, window.innerHeight];");
+        int frameWidth = VIEWPORT.getWidth() - ((Number) inner.get(0)).intValue();
+        int frameHeight = VIEWPORT.getHeight() - ((Number) inner.get(1)).intValue();
+        if (frameWidth != 0 || frameHeight != 0) {
+            window.setSize(new Dimension(VIEWPORT.getWidth() + frameWidth, VIEWPORT.getHeight() + frameHeight));
+        }
+    }
+
+    private static Dimension viewport(String size) {
+        String[] parts = size.trim().toLowerCase().split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("visual.viewport must look like 1280x800, got " + size);
+        }
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    private static List<Rectangle> ignoredRegions(JavascriptExecutor js, String... selectors) {
+        List<Rectangle> regions = new ArrayList<>();
+        if (selectors.length == 0) {
+            return regions;
+        }
+        Object rects = js.executeScript(IGNORED_REGIONS_SCRIPT, Arrays.asList(selectors));
+        for (Object rect : (List<?>) rects) {
+            List<?> edges = (List<?>) rect;
+            // Round outwards so anti-aliased edges stay inside the region
+            int left = (int) Math.floor(((Number) edges.get(0)).doubleValue());
+            int top = (int) Math.floor(((Number) edges.get(1)).doubleValue());
+            int right = (int) Math.ceil(((Number) edges.get(2)).doubleValue());
+            int bottom = (int) Math.ceil(((Number) edges.get(3)).doubleValue());
+            regions.add(new Rectangle(left, top, right - left, bottom - top));
+        }
+        return regions;
+    }
+
+    private static String browserName(WebDriver driver) {
+        if (driver instanceof HasCapabilities) {
+            String browser = ((HasCapabilities) driver).getCapabilities().getBrowserName();
+            if (browser != null && !browser.isEmpty()) {
+                return browser.replaceAll("[^A-Za-z0-9-]", "");
+            }
+        }
+        return "browser";
+    }
+}
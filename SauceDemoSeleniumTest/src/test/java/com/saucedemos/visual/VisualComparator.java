@@ -0,0 +1,216 @@
+package com.saucedemos.visual;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares two rasters of the same size tile by tile, leaving out ignored regions (e.g. the cart badge).
+// Tiles entirely inside an ignored region are skipped; only tiles a region touches pay for cutting rows around it.
+// compare stops after the first row of tiles that takes the count past maxDifferentPixels, since the verdict can't
+// change; compareFully counts everything, for reporting a failure.
+public final class VisualComparator {
+    public static final int TILE_SIZE = 64;
+
+    private final int tolerance;
+    private final int maxDifferentPixels;
+
+    public VisualComparator(int tolerance, int maxDifferentPixels) {
+        this.tolerance = tolerance;
+        this.maxDifferentPixels = maxDifferentPixels;
+    }
+
+    public Comparison compare(Raster baseline, Raster actual, List<Rectangle> ignored) {
+        return compare(baseline, actual, ignored, maxDifferentPixels);
+    }
+
+    public Comparison compareFully(Raster baseline, Raster actual, List<Rectangle> ignored) {
+        return compare(baseline, actual, ignored, Integer.MAX_VALUE);
+    }
+
+    // The actual image faded, with differing pixels in red and ignored regions greyed out
+    public Raster diffImage(Raster baseline, Raster actual, List<Rectangle> ignored) {
+        checkSameSize(baseline, actual);
+        int width = actual.getWidth();
+        int[] a = baseline.pixels();
+        int[] b = actual.pixels();
+        int[] diff = new int[b.length];
+        for (int i = 0; i < b.length; i++) {
+            int x = i % width;
+            int y = i / width;
+            if (isIgnored(ignored, x, y)) {
+                diff[i] = 0xff808080;
+            } else if (PixelDiff.differs(a[i], b[i], tolerance)) {
+                diff[i] = 0xffff0000;
+            } else {
+                int gray = ((b[i] >>> 16 & 0xff) + (b[i] >>> 8 & 0xff) + (b[i] & 0xff)) / 3;
+                int faded = 192 + gray / 4;
+                diff[i] = 0xff000000 | faded << 16 | faded << 8 | faded;
+            }
+        }
+        return new Raster(width, actual.getHeight(), diff);
+    }
+
+    private Comparison compare(Raster baseline, Raster actual, List<Rectangle> ignored, int limit) {
+        checkSameSize(baseline, actual);
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] a = baseline.pixels();
+        int[] b = actual.pixels();
+        int tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+        Comparison comparison = new Comparison(tilesAcross * ((height + TILE_SIZE - 1) / TILE_SIZE));
+        boolean[] covered = new boolean[tilesAcross];
+        List<List<Rectangle>> touching = new ArrayList<>();
+        for (int tile = 0; tile < tilesAcross; tile++) {
+            touching.add(new ArrayList<>());
+        }
+        int[] different = new int[tilesAcross];
+
+        // A band is one row of tiles. Its pixel rows are walked in memory order (going down a tile column at a
+        // time strides a whole image row per step and runs several times slower); the verdict is checked per band.
+        for (int y0 = 0; y0 < height; y0 += TILE_SIZE) {
+            int y1 = Math.min(y0 + TILE_SIZE, height);
+            for (int tile = 0; tile < tilesAcross; tile++) {
+                Rectangle bounds = tileBounds(tile, y0, y1, width);
+                covered[tile] = false;
+                touching.get(tile).clear();
+                different[tile] = 0;
+                for (Rectangle region : ignored) {
+                    if (region.contains(bounds)) {
+                        covered[tile] = true;
+                        break;
+                    }
+                    if (region.intersects(bounds)) {
+                        touching.get(tile).add(region);
+                    }
+                }
+            }
+
+            for (int y = y0; y < y1; y++) {
+                int row = y * width;
+                for (int tile = 0; tile < tilesAcross; tile++) {
+                    if (covered[tile]) {
+                        continue;
+                    }
+                    int x0 = tile * TILE_SIZE;
+                    int x1 = Math.min(x0 + TILE_SIZE, width);
+                    if (touching.get(tile).isEmpty()) {
+                        different[tile] += PixelDiff.countDifferent(a, b, row + x0, row + x1, tolerance);
+                        comparison.comparedPixels += x1 - x0;
+                    } else {
+                        different[tile] += countOutside(touching.get(tile), a, b, row, y, x0, x1, comparison);
+                    }
+                }
+            }
+
+            for (int tile = 0; tile < tilesAcross; tile++) {
+                if (covered[tile]) {
+                    comparison.tilesIgnored++;
+                    continue;
+                }
+                comparison.tilesCompared++;
+                if (different[tile] > 0) {
+                    Rectangle bounds = tileBounds(tile, y0, y1, width);
+                    comparison.differentPixels += different[tile];
+                    comparison.changedBounds = comparison.changedBounds == null ? bounds
+                            : comparison.changedBounds.union(bounds);
+                }
+            }
+            if (comparison.differentPixels > limit) {
+                comparison.exitedEarly = y1 < height;
+                return comparison;
+            }
+        }
+        return comparison;
+    }
+
+    private static Rectangle tileBounds(int tile, int y0, int y1, int width) {
+        int x0 = tile * TILE_SIZE;
+        return new Rectangle(x0, y0, Math.min(x0 + TILE_SIZE, width) - x0, y1 - y0);
+    }
+
+    // One row of a tile, minus the parts of it the ignored regions cover
+    private int countOutside(List<Rectangle> regions, int[] a, int[] b, int row, int y, int x0, int x1,
+                             Comparison comparison) {
+        int different = 0;
+        int x = x0;
+        while (x < x1) {
+            int skipTo = x;
+            int next = x1;
+            for (Rectangle region : regions) {
+                if (y < region.y || y >= region.y + region.height) {
+                    continue;
+                }
+                int left = region.x;
+                int right = region.x + region.width;
+                if (left <= x && right > x) {
+                    skipTo = Math.max(skipTo, right);
+                } else if (left > x) {
+                    next = Math.min(next, left);
+                }
+            }
+            if (skipTo > x) {
+                x = skipTo;
+                continue;
+            }
+            different += PixelDiff.countDifferent(a, b, row + x, row + next, tolerance);
+            comparison.comparedPixels += next - x;
+            x = next;
+        }
+        return different;
+    }
+
+    private static boolean isIgnored(List<Rectangle> ignored, int x, int y) {
+        for (Rectangle region : ignored) {
+            if (region.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void checkSameSize(Raster baseline, Raster actual) {
+        if (baseline.getWidth() != actual.getWidth() || baseline.getHeight() != actual.getHeight()) {
+            throw new IllegalArgumentException("Baseline is " + baseline.getWidth() + "x" + baseline.getHeight()
+                    + ", actual is " + actual.getWidth() + "x" + actual.getHeight());
+        }
+    }
+
+    public static final class Comparison {
+        private final int tilesTotal;
+        private int tilesCompared;
+        private int tilesIgnored;
+        private long comparedPixels;
+        private long differentPixels;
+        private boolean exitedEarly;
+        private Rectangle changedBounds;
+
+        private Comparison(int tilesTotal) {
+            this.tilesTotal = tilesTotal;
+        }
+
+        public long getDifferentPixels() {
+            return differentPixels;
+        }
+
+        public long getComparedPixels() {
+            return comparedPixels;
+        }
+
+        public boolean exitedEarly() {
+            return exitedEarly;
+        }
+
+        // Union of the tiles with differences, or null when there are none
+        public Rectangle getChangedBounds() {
+            return changedBounds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d of %d pixels differ%s, %d/%d tiles compared, %d ignored%s", differentPixels,
+                    comparedPixels, exitedEarly ? " (stopped early)" : "", tilesCompared, tilesTotal, tilesIgnored,
+                    changedBounds == null ? "" : String.format(", changes within x=%d y=%d %dx%d", changedBounds.x,
+                            changedBounds.y, changedBounds.width, changedBounds.height));
+        }
+    }
+}
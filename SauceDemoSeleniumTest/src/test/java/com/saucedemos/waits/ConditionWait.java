@@ -0,0 +1,78 @@
+package com.saucedemos.waits;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Drop-in replacement for WebDriverWait.until that re-checks the condition when the page tells it something
+// changed (PageSignals) rather than every 500 ms. Without DevTools it polls adaptively: 10 ms at first,
+// doubling up to 250 ms, so short waits resolve quickly and long ones don't flood the driver.
+// Every wait that had to wait records how much sooner it returned than the fixed-interval polling it replaces
+// would have (WaitStats).
+public class ConditionWait {
+    private static final long FIRST_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // Also the safety re-check with signals, for changes nothing reports (e.g. layout-only visibility changes)
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final long replacedPollNanos;
+    private final long maxPollNanos;
+
+    // replacedPoll is the WebDriverWait interval this stands in for, the baseline for the latency saved
+    public ConditionWait(WebDriver driver, Duration timeout, Duration replacedPoll) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.replacedPollNanos = replacedPoll.toNanos();
+        // Never check less often than the wait being replaced did
+        this.maxPollNanos = Math.min(MAX_POLL_NANOS, replacedPollNanos);
+    }
+
+    public <T> T until(ExpectedCondition<T> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        PageSignals signals = PageSignals.of(driver);
+        long pollNanos = Math.min(FIRST_POLL_NANOS, maxPollNanos);
+        RuntimeException lastError = null;
+
+        for (int attempt = 0; ; attempt++) {
+            // Read before checking, so a change that lands during the check still wakes the next wait
+            long seen = signals == null ? 0 : signals.version();
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    if (attempt > 0) {
+                        WaitStats.recordResolved(System.nanoTime() - start, replacedPollNanos);
+                    }
+                    return value;
+                }
+                lastError = null;
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %d ms, %s)",
+                        condition, timeout.toMillis(), signals == null ? "adaptive polling" : "DevTools page signals"),
+                        lastError);
+            }
+            try {
+                if (signals != null) {
+                    signals.awaitChange(seen, Math.min(remaining, maxPollNanos));
+                } else {
+                    TimeUnit.NANOSECONDS.sleep(Math.min(remaining, pollNanos));
+                    pollNanos = Math.min(pollNanos * 2, maxPollNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + condition, e);
+            }
+        }
+    }
+}
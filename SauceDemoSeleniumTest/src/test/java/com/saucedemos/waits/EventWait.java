@@ -0,0 +1,102 @@
+package com.saucedemos.waits;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+
+// Waits that resolve from inside the page (MutationObserver, animation/transition promises, scroll frames)
+// as soon as the condition is met, instead of sleeping for a fixed amount of wall-clock time.
+public class EventWait {
+    private static final String DOM_CONDITION =
+            "var args = arguments, timeout = args[0], done = args[args.length - 1];" +
+            "var met = function () { %s };" +
+            "if (met()) { done(true); return; }" +
+            "var observer = new MutationObserver(function () {" +
+            "  if (met()) { clearTimeout(timer); observer.disconnect(); done(true); }" +
+            "});" +
+            "var timer = setTimeout(function () { observer.disconnect(); done(false); }, timeout);" +
+            "observer.observe(document.documentElement," +
+            "  {childList: true, subtree: true, characterData: true, attributes: true});";
+
+    private static final String SCROLL_SETTLED =
+            "var el = arguments[1], timeout = arguments[0], done = arguments[arguments.length - 1];" +
+            "var rect = el.getBoundingClientRect();" +
+            "if (rect.top >= 0 && rect.bottom <= window.innerHeight) { done(true); return; }" +
+            "var finished = false;" +
+            "var finish = function (result) { if (!finished) { finished = true; done(result); } };" +
+            "window.addEventListener('scrollend', function () { finish(true); }, {once: true});" +
+            "el.scrollIntoView({behavior: 'smooth', block: 'center'});" +
+            // Fallback for browsers without scrollend: settled once the position stops changing between frames
+            "var deadline = performance.now() + timeout, lastY = window.scrollY, moved = false, frames = 0, stable = 0;" +
+            "var frame = function () {" +
+            "  if (finished) { return; }" +
+            "  frames++;" +
+            "  if (window.scrollY !== lastY) { moved = true; stable = 0; lastY = window.scrollY; } else { stable++; }" +
+            "  if (stable >= 2 && (moved || frames > 10)) { finish(true); return; }" +
+            "  if (performance.now() > deadline) { finish(false); return; }" +
+            "  requestAnimationFrame(frame);" +
+            "};" +
+            "requestAnimationFrame(frame);";
+
+    private static final String ANIMATIONS_FINISHED =
+            "var el = document.querySelector(arguments[1]), timeout = arguments[0], done = arguments[arguments.length - 1];" +
+            "if (el === null || !el.getAnimations) { done(el !== null); return; }" +
+            "var timer = setTimeout(function () { done(false); }, timeout);" +
+            "var finish = function () { clearTimeout(timer); requestAnimationFrame(function () { done(true); }); };" +
+            "Promise.all(el.getAnimations({subtree: true}).map(function (a) { return a.finished; }))" +
+            "  .then(finish, finish);";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public EventWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public void scrollIntoView(WebElement element) {
+        await(SCROLL_SETTLED, "scroll to settle", element);
+    }
+
+    // Covers both CSS transitions and animations (transitionend/animationend) on the element and its children
+    public void untilAnimationsFinish(String cssSelector) {
+        await(ANIMATIONS_FINISHED, "animations on " + cssSelector + " to finish", cssSelector);
+    }
+
+    public void untilPresent(String cssSelector) {
+        await(String.format(DOM_CONDITION, "return document.querySelector(args[1]) !== null;"),
+                cssSelector + " to be present", cssSelector);
+    }
+
+    public void untilAbsent(String cssSelector) {
+        await(String.format(DOM_CONDITION, "return document.querySelector(args[1]) === null;"),
+                cssSelector + " to be absent", cssSelector);
+    }
+
+    public void untilText(String cssSelector, String text) {
+        await(String.format(DOM_CONDITION,
+                        "var el = document.querySelector(args[1]);" +
+                        "return el !== null && el.textContent.trim() === args[2];"),
+                cssSelector + " to have text '" + text + "'", cssSelector, text);
+    }
+
+    private void await(String script, String description, Object... args) {
+        Object[] scriptArgs = new Object[args.length + 1];
+        scriptArgs[0] = timeout.toMillis();
+        System.arraycopy(args, 0, scriptArgs, 1, args.length);
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(script, scriptArgs);
+        } finally {
+            WaitStats.record(start);
+        }
+        if (!Boolean.TRUE.equals(result)) {
+            throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + description);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.saucedemos.waits;
+
+import com.saucedemos.driver.BrowserContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Change notifications pushed by the browser over DevTools: navigation committed, DOMContentLoaded, load,
+// same-document navigations, and DOM mutations / finished transitions reported by an injected MutationObserver
+// through a Runtime binding. Each notification bumps a version number that ConditionWait blocks on, so a
+// condition is re-checked as soon as the page changes instead of on the next 500 ms poll.
+public final class PageSignals {
+    private static final Map<WebDriver, PageSignals> SIGNALS = Collections.synchronizedMap(new WeakHashMap<>());
+    // Cached for drivers without DevTools so the attach is not retried on every wait
+    private static final PageSignals UNAVAILABLE = new PageSignals();
+    private static final String BINDING = "__saucedemoPageChanged";
+
+    // Mutations are coalesced per microtask, so a React render that touches many nodes sends one notification
+    private static final String OBSERVER_SCRIPT =
+            "(function () {"
+            + "  if (window.__saucedemoObserver || typeof window." + BINDING + " !== 'function') { return; }"
+            + "  window.__saucedemoObserver = true;"
+            + "  var pending = false;"
+            + "  var notify = function () {"
+            + "    if (pending) { return; }"
+            + "    pending = true;"
+            + "    Promise.resolve().then(function () { pending = false; window." + BINDING + "('dom'); });"
+            + "  };"
+            + "  var observe = function () {"
+            + "    new MutationObserver(notify).observe(document.documentElement,"
+            + "        {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "  };"
+            + "  if (document.documentElement) { observe(); } else { document.addEventListener('DOMContentLoaded', observe); }"
+            + "  window.addEventListener('transitionend', notify, true);"
+            + "  window.addEventListener('animationend', notify, true);"
+            + "})();";
+
+    private final Object lock = new Object();
+    private long version;
+
+    private PageSignals() {
+    }
+
+    // Returns null when the browser has no DevTools support (e.g. Firefox), or the driver is in a BrowserContext
+    // window the DevTools session isn't attached to; waits then fall back to polling
+    public static PageSignals of(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || BrowserContext.isActive(driver)) {
+            return null;
+        }
+        PageSignals signals;
+        synchronized (SIGNALS) {
+            signals = SIGNALS.get(driver);
+            if (signals == null) {
+                signals = attach(driver);
+                SIGNALS.put(driver, signals);
+            }
+        }
+        return signals == UNAVAILABLE ? null : signals;
+    }
+
+    private static PageSignals attach(WebDriver driver) {
+        PageSignals signals = new PageSignals();
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            signals.install(devTools);
+            return signals;
+        } catch (RuntimeException e) {
+            System.err.println("DevTools page signals not available, waits will poll: " + e.getMessage());
+            return UNAVAILABLE;
+        }
+    }
+
+    public long version() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    // Blocks until something changed after seenVersion was read, or the timeout passes; true if something changed
+    public boolean awaitChange(long seenVersion, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        synchronized (lock) {
+            while (version == seenVersion) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            }
+            return true;
+        }
+    }
+
+    private void signal() {
+        synchronized (lock) {
+            version++;
+            lock.notifyAll();
+        }
+    }
+
+    private void install(DevTools devTools) {
+        devTools.addListener(event("Page.frameNavigated"), params -> signal());
+        devTools.addListener(event("Page.navigatedWithinDocument"), params -> signal());
+        devTools.addListener(event("Page.domContentEventFired"), params -> signal());
+        devTools.addListener(event("Page.loadEventFired"), params -> signal());
+        devTools.addListener(event("Runtime.bindingCalled"), params -> {
+            if (BINDING.equals(params.get("name"))) {
+                signal();
+            }
+        });
+        devTools.send(new Command<Void>("Page.enable", Collections.emptyMap()));
+
+        // The binding and the observer survive navigations; the evaluate covers the document already loaded
+        devTools.send(new Command<Void>("Runtime.addBinding", Collections.singletonMap("name", BINDING)));
+        devTools.send(new Command<Void>("Page.addScriptToEvaluateOnNewDocument",
+                Collections.singletonMap("source", OBSERVER_SCRIPT)));
+        devTools.send(new Command<Void>("Runtime.evaluate", Collections.singletonMap("expression", OBSERVER_SCRIPT)));
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,87 @@
+package com.saucedemos.waits;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.time.Duration;
+
+// Explicit waits for page objects. Implicit waits stay off, so a lookup for something that is legitimately
+// missing costs only the budget of the check that asked for it:
+//   -Dwait.presenceMs  budget for elements that are expected to appear (default 10000)
+//   -Dwait.absenceMs   budget for yes/no probes that may legitimately find nothing (default 500)
+// Conditions are re-checked when the page reports a change (see ConditionWait) instead of on a fixed interval.
+public class WaitPolicy {
+    public static final Duration PRESENCE_BUDGET = Duration.ofMillis(Long.getLong("wait.presenceMs", 10000));
+    public static final Duration ABSENCE_BUDGET = Duration.ofMillis(Long.getLong("wait.absenceMs", 500));
+
+    private final WebDriver driver;
+    private final ConditionWait presenceWait;
+    private final ConditionWait absenceWait;
+
+    public WaitPolicy(WebDriver driver) {
+        this.driver = driver;
+        // Baselines are the WebDriverWait intervals these used to poll at
+        this.presenceWait = new ConditionWait(driver, PRESENCE_BUDGET, Duration.ofMillis(500));
+        this.absenceWait = new ConditionWait(driver, ABSENCE_BUDGET, Duration.ofMillis(50));
+    }
+
+    public <T> T until(ExpectedCondition<T> condition) {
+        long start = System.nanoTime();
+        try {
+            return presenceWait.until(condition);
+        } finally {
+            WaitStats.record(start);
+        }
+    }
+
+    public boolean isPresent(By locator) {
+        return probe(ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    public boolean isDisplayed(By locator) {
+        return probe(ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    // Waits up to the absence budget for the element to go away
+    public boolean isAbsent(By locator) {
+        long start = System.nanoTime();
+        try {
+            return driver.findElements(locator).isEmpty()
+                    || absenceWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        } catch (TimeoutException e) {
+            return false;
+        } finally {
+            WaitStats.record(start);
+        }
+    }
+
+    // Single lookup with no waiting at all
+    public void assertAbsent(By locator) {
+        if (!driver.findElements(locator).isEmpty()) {
+            throw new AssertionError("Expected no element matching " + locator);
+        }
+    }
+
+    private boolean probe(ExpectedCondition<?> condition) {
+        long start = System.nanoTime();
+        try {
+            // Answer straight away when the element is already there, otherwise give it the absence budget
+            Object immediate = null;
+            try {
+                immediate = condition.apply(driver);
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                // Not there yet
+            }
+            return immediate != null || absenceWait.until(condition) != null;
+        } catch (TimeoutException e) {
+            return false;
+        } finally {
+            WaitStats.record(start);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.saucedemos.waits;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Accumulates the time the current test thread spent blocked in explicit waits, and how much sooner
+// ConditionWait returned than the fixed-interval polling it replaced would have
+public final class WaitStats {
+    private static final int WAITED = 0;
+    private static final int SAVED = 1;
+    private static final int RESOLVED = 2;
+    private static final int MAX_SAVED = 3;
+    private static final ThreadLocal<long[]> STATS = ThreadLocal.withInitial(() -> new long[4]);
+
+    private WaitStats() {
+    }
+
+    public static void reset() {
+        Arrays.fill(STATS.get(), 0);
+    }
+
+    public static void record(long startNanos) {
+        STATS.get()[WAITED] += System.nanoTime() - startNanos;
+    }
+
+    // A polling wait checks at 0, p, 2p, ... so a condition that came true after elapsed is seen at the next multiple
+    static void recordResolved(long elapsedNanos, long pollNanos) {
+        long polledAt = (elapsedNanos + pollNanos - 1) / pollNanos * pollNanos;
+        long saved = polledAt - elapsedNanos;
+        long[] stats = STATS.get();
+        stats[SAVED] += saved;
+        stats[RESOLVED]++;
+        stats[MAX_SAVED] = Math.max(stats[MAX_SAVED], saved);
+    }
+
+    public static long totalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(STATS.get()[WAITED]);
+    }
+
+    public static long savedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(STATS.get()[SAVED]);
+    }
+
+    public static String summary() {
+        long[] stats = STATS.get();
+        if (stats[RESOLVED] == 0) {
+            return "Time spent waiting: " + totalMillis() + " ms";
+        }
+        return String.format("Time spent waiting: %d ms; %d wait(s) resolved after waiting, ~%.0f ms sooner than "
+                        + "interval polling (avg %.0f ms, max %.0f ms per wait)", totalMillis(), stats[RESOLVED],
+                stats[SAVED] / 1e6, stats[SAVED] / 1e6 / stats[RESOLVED], stats[MAX_SAVED] / 1e6);
+    }
+}
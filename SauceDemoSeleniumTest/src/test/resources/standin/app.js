@@ -0,0 +1,298 @@
+// Minimal stand-in for www.saucedemo.com. Keeps the ids, classes, cookie and localStorage keys the page objects rely on.
+var StandIn = (function () {
+    var SESSION_COOKIE = 'session-username';
+    var CART_KEY = 'cart-contents';
+    var PASSWORD = 'secret_sauce';
+    var USERS = ['standard_user', 'locked_out_user', 'problem_user', 'performance_glitch_user', 'error_user', 'visual_user'];
+
+    var PRODUCTS = [
+        {id: 0, name: 'Sauce Labs Bike Light', price: 9.99,
+            desc: "A red light isn't the desired state in testing but it sure helps when riding your bike at night. Water-resistant with 3 lighting modes, 1 AAA battery included."},
+        {id: 1, name: 'Sauce Labs Bolt T-Shirt', price: 15.99,
+            desc: 'Get your testing superhero on with the Sauce Labs bolt T-shirt. From American Apparel, 100% ringspun combed cotton, heather gray with red bolt.'},
+        {id: 2, name: 'Sauce Labs Onesie', price: 7.99,
+            desc: "Rib snap infant onesie for the junior automation engineer in development. Reinforced 3-snap bottom closure, two-needle hemmed sleeved and bottom won't unravel."},
+        {id: 3, name: 'Test.allTheThings() T-Shirt (Red)', price: 15.99,
+            desc: 'This classic Sauce Labs t-shirt is perfect to wear when cozying up to your keyboard to automate a few tests. Super-soft and comfy ringspun combed cotton.'},
+        {id: 4, name: 'Sauce Labs Backpack', price: 29.99,
+            desc: 'carry.allTheThings() with the sleek, streamlined Sly Pack that melds uncompromising style with unequaled laptop and tablet protection.'},
+        {id: 5, name: 'Sauce Labs Fleece Jacket', price: 49.99,
+            desc: "It's not every day that you come across a midweight quarter-zip fleece jacket capable of handling everything from a relaxing day outdoors to a busy day at the office."}
+    ];
+
+    function slug(name) {
+        return name.toLowerCase().replace(/\s+/g, '-');
+    }
+
+    function el(tag, className, text) {
+        var node = document.createElement(tag);
+        if (className) {
+            node.className = className;
+        }
+        if (text !== undefined) {
+            node.textContent = text;
+        }
+        return node;
+    }
+
+    function currentUser() {
+        var match = document.cookie.match(new RegExp('(?:^|; )' + SESSION_COOKIE + '=([^;]*)'));
+        return match ? decodeURIComponent(match[1]) : null;
+    }
+
+    function cart() {
+        try {
+            return JSON.parse(window.localStorage.getItem(CART_KEY)) || [];
+        } catch (e) {
+            return [];
+        }
+    }
+
+    function saveCart(ids) {
+        if (ids.length === 0) {
+            window.localStorage.removeItem(CART_KEY);
+        } else {
+            window.localStorage.setItem(CART_KEY, JSON.stringify(ids));
+        }
+        renderBadge();
+    }
+
+    function toggleCart(id) {
+        var ids = cart();
+        var index = ids.indexOf(id);
+        if (index === -1) {
+            ids.push(id);
+        } else {
+            ids.splice(index, 1);
+        }
+        saveCart(ids);
+    }
+
+    function requireLogin(path) {
+        if (currentUser() === null) {
+            window.location.replace('/?error=' + encodeURIComponent(path));
+            return false;
+        }
+        return true;
+    }
+
+    function logout() {
+        document.cookie = SESSION_COOKIE + '=; path=/; expires=Thu, 01 Jan 1970 00:00:00 GMT';
+        window.localStorage.removeItem(CART_KEY);
+        window.location.href = '/';
+    }
+
+    function renderBadge() {
+        var container = document.querySelector('.shopping_cart_link');
+        if (!container) {
+            return;
+        }
+        var badge = container.querySelector('.shopping_cart_badge');
+        var count = cart().length;
+        if (count === 0) {
+            if (badge) {
+                badge.remove();
+            }
+            return;
+        }
+        if (!badge) {
+            badge = el('span', 'shopping_cart_badge');
+            badge.setAttribute('data-test', 'shopping-cart-badge');
+            container.appendChild(badge);
+        }
+        badge.textContent = String(count);
+    }
+
+    function renderHeader() {
+        var header = document.getElementById('header_container');
+        header.className = 'header_container';
+
+        var menuWrap = el('div', 'bm-menu-wrap');
+        menuWrap.setAttribute('aria-hidden', 'true');
+        var menu = el('div', 'bm-menu');
+        var nav = el('nav', 'bm-item-list');
+        [['inventory_sidebar_link', 'All Items', '/inventory.html'],
+            ['about_sidebar_link', 'About', 'https://saucelabs.com/'],
+            ['logout_sidebar_link', 'Logout', '#'],
+            ['reset_sidebar_link', 'Reset App State', '#']].forEach(function (item) {
+            var link = el('a', 'bm-item menu-item', item[1]);
+            link.id = item[0];
+            link.href = item[2];
+            nav.appendChild(link);
+        });
+        menu.appendChild(nav);
+        menuWrap.appendChild(menu);
+
+        var closeButton = el('button', 'bm-cross-button', 'Close Menu');
+        closeButton.id = 'react-burger-cross-btn';
+        menuWrap.appendChild(closeButton);
+
+        var menuButton = el('button', 'bm-burger-button', 'Open Menu');
+        menuButton.id = 'react-burger-menu-btn';
+
+        var primary = el('div', 'primary_header');
+        var logo = el('div', 'app_logo', 'Swag Labs');
+        var cartContainer = el('div', 'shopping_cart_container');
+        cartContainer.id = 'shopping_cart_container';
+        var cartLink = el('a', 'shopping_cart_link');
+        cartLink.href = '/cart.html';
+        cartLink.setAttribute('data-test', 'shopping-cart-link');
+        cartContainer.appendChild(cartLink);
+
+        primary.appendChild(menuButton);
+        primary.appendChild(logo);
+        primary.appendChild(cartContainer);
+        header.appendChild(menuWrap);
+        header.appendChild(primary);
+
+        menuButton.addEventListener('click', function () {
+            menuWrap.classList.add('bm-menu-open');
+            menuWrap.setAttribute('aria-hidden', 'false');
+        });
+        closeButton.addEventListener('click', function () {
+            menuWrap.classList.remove('bm-menu-open');
+            menuWrap.setAttribute('aria-hidden', 'true');
+        });
+        document.getElementById('logout_sidebar_link').addEventListener('click', function (event) {
+            event.preventDefault();
+            logout();
+        });
+        document.getElementById('reset_sidebar_link').addEventListener('click', function (event) {
+            event.preventDefault();
+            saveCart([]);
+            window.location.reload();
+        });
+        renderBadge();
+    }
+
+    function cartButton(product) {
+        var inCart = cart().indexOf(product.id) !== -1;
+        var button = el('button', 'btn btn_small btn_inventory ' + (inCart ? 'btn_secondary' : 'btn_primary'),
+            inCart ? 'Remove' : 'Add to cart');
+        button.id = (inCart ? 'remove-' : 'add-to-cart-') + slug(product.name);
+        button.setAttribute('data-test', button.id);
+        button.addEventListener('click', function () {
+            toggleCart(product.id);
+            button.replaceWith(cartButton(product));
+        });
+        return button;
+    }
+
+    function productRow(product, rowClass) {
+        var row = el('div', rowClass);
+        row.setAttribute('data-test', rowClass.replace('_', '-'));
+        var label = el('div', 'inventory_item_label');
+        var name = el('div', 'inventory_item_name', product.name);
+        name.setAttribute('data-test', 'inventory-item-name');
+        label.appendChild(name);
+        label.appendChild(el('div', 'inventory_item_desc', product.desc));
+        var priceBar = el('div', 'pricebar');
+        var price = el('div', 'inventory_item_price', '$' + product.price.toFixed(2));
+        price.setAttribute('data-test', 'inventory-item-price');
+        priceBar.appendChild(price);
+        priceBar.appendChild(cartButton(product));
+        row.appendChild(label);
+        row.appendChild(priceBar);
+        return row;
+    }
+
+    function sorted(order) {
+        var products = PRODUCTS.slice();
+        var comparators = {
+            az: function (a, b) { return a.name.localeCompare(b.name); },
+            za: function (a, b) { return b.name.localeCompare(a.name); },
+            lohi: function (a, b) { return a.price - b.price; },
+            hilo: function (a, b) { return b.price - a.price; }
+        };
+        return products.sort(comparators[order] || comparators.az);
+    }
+
+    function renderLogin() {
+        var form = document.getElementById('login-form');
+        var errorContainer = form.querySelector('.error-message-container');
+
+        var showError = function (message) {
+            errorContainer.innerHTML = '';
+            errorContainer.classList.add('error');
+            var error = el('h3', '', 'Epic sadface: ' + message);
+            error.setAttribute('data-test', 'error');
+            var close = el('button', 'error-button', 'x');
+            close.type = 'button';
+            close.addEventListener('click', function () {
+                errorContainer.innerHTML = '';
+                errorContainer.classList.remove('error');
+            });
+            error.appendChild(close);
+            errorContainer.appendChild(error);
+        };
+
+        var params = new URLSearchParams(window.location.search);
+        if (params.has('error')) {
+            showError("You can only access '" + params.get('error') + "' when you are logged in.");
+        }
+
+        form.addEventListener('submit', function (event) {
+            event.preventDefault();
+            var username = document.getElementById('user-name').value;
+            var password = document.getElementById('password').value;
+            if (!username) {
+                showError('Username is required');
+            } else if (!password) {
+                showError('Password is required');
+            } else if (USERS.indexOf(username) === -1 || password !== PASSWORD) {
+                showError('Username and password do not match any user in this service');
+            } else if (username === 'locked_out_user') {
+                showError('Sorry, this user has been locked out.');
+            } else {
+                document.cookie = SESSION_COOKIE + '=' + encodeURIComponent(username) + '; path=/';
+                window.location.href = '/inventory.html';
+            }
+        });
+    }
+
+    function renderInventory() {
+        if (!requireLogin('/inventory.html')) {
+            return;
+        }
+        renderHeader();
+        var list = document.querySelector('.inventory_list');
+        var sort = document.querySelector('.product_sort_container');
+        var render = function () {
+            list.innerHTML = '';
+            sorted(sort.value).forEach(function (product) {
+                list.appendChild(productRow(product, 'inventory_item'));
+            });
+        };
+        sort.addEventListener('change', render);
+        render();
+    }
+
+    function renderCart() {
+        if (!requireLogin('/cart.html')) {
+            return;
+        }
+        renderHeader();
+        var list = document.querySelector('.cart_list');
+        cart().forEach(function (id) {
+            var product = PRODUCTS.filter(function (p) { return p.id === id; })[0];
+            if (!product) {
+                return;
+            }
+            var row = productRow(product, 'cart_item');
+            row.insertBefore(el('div', 'cart_quantity', '1'), row.firstChild);
+            list.appendChild(row);
+            // Removing from the cart page drops the whole row
+            row.querySelector('button').addEventListener('click', function () {
+                row.remove();
+            });
+        });
+        document.getElementById('continue-shopping').addEventListener('click', function () {
+            window.location.href = '/inventory.html';
+        });
+        document.getElementById('checkout').addEventListener('click', function () {
+            window.location.href = '/checkout-step-one.html';
+        });
+    }
+
+    return {renderLogin: renderLogin, renderInventory: renderInventory, renderCart: renderCart};
+})();